@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.annotations;
+
+/**
+ * Defines how a configuration injected with {@link ContextAwareConfiguration} is cached.
+ * Only configurations injected as {@code ValueMap}, {@code ConfigurationView} or as configuration annotation class
+ * without nested configurations can be cached, all others are always resolved.
+ */
+public enum CacheScope {
+
+    /**
+     * Always resolve the configuration, e.g. for feature toggles that have to take effect immediately.
+     */
+    NONE,
+
+    /**
+     * Resolve the configuration once per request and share it with all injections into models adapted from the
+     * same request. A configuration change resolves it again. Models adapted from other adaptables, e.g. resources,
+     * resolve the configuration on each injection. Does not require the shared cache to be enabled.
+     */
+    REQUEST,
+
+    /**
+     * Use the shared configuration cache of the injector if it is enabled. Cached configurations are resolved with
+     * the service user of the cache and served to all callers independent of their permissions, so only use this
+     * scope for configurations every caller may read.
+     */
+    SHARED
+}
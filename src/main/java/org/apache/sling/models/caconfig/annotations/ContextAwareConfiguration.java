@@ -55,4 +55,27 @@ public @interface ContextAwareConfiguration {
      * Default value = DEFAULT.
      */
     public InjectionStrategy injectionStrategy() default InjectionStrategy.DEFAULT;
+
+    /**
+     * If set to true, the change-stamp of the configurations is injected instead of the configuration itself.
+     * The change-stamp is a {@code long} value that increases whenever a configuration of the context or the
+     * context itself changes, and can be used e.g. to build ETags or fragment cache keys without re-resolving
+     * the configuration. It covers all configurations of the context, so the configuration name is not required.
+     * Default value = false.
+     */
+    public boolean stamp() default false;
+
+    /**
+     * Defines how the configuration is cached for this injection point, independent of other injection points
+     * of the same configuration. The shared cache has to be enabled explicitly with {@link CacheScope#SHARED}.
+     * Default value = NONE.
+     */
+    public CacheScope cacheScope() default CacheScope.NONE;
+
+    /**
+     * Maximum age in seconds of a configuration served from the shared cache for this injection point. Older
+     * cached configurations - including stale ones in stale-while-revalidate mode - are resolved again.
+     * Only applies to cache scope SHARED. Default value = -1 (no limit).
+     */
+    public int maxAgeSeconds() default -1;
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enables the components integrating with optionally imported packages (Felix inventory, Jackson exporter,
+ * OpenTelemetry), which are declared disabled by default. Each is only enabled if the classes it requires
+ * can be loaded, i.e. if the optional package is wired; otherwise SCR would fail to load the component
+ * class and log an error on every activation attempt.
+ */
+@Component(immediate = true)
+public class OptionalComponentsEnabler {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionalComponentsEnabler.class);
+
+    /**
+     * Names of the disabled components, mapped to classes from optional packages they require.
+     * Component classes are referenced by name, as loading them fails when the packages are not wired.
+     */
+    static final Map<String, List<String>> OPTIONAL_COMPONENTS;
+
+    static {
+        Map<String, List<String>> components = new LinkedHashMap<>();
+        components.put(
+                "org.apache.sling.models.caconfig.impl.injectors.InjectorInventoryPrinter",
+                Arrays.asList("org.apache.felix.inventory.InventoryPrinter"));
+        components.put(
+                "org.apache.sling.models.caconfig.impl.jackson.ConfigurationModuleProvider",
+                Arrays.asList(
+                        "com.fasterxml.jackson.databind.Module",
+                        "org.apache.sling.models.jacksonexporter.ModuleProvider"));
+        components.put(
+                "org.apache.sling.models.caconfig.impl.tracing.OpenTelemetryInjectionTracer",
+                Arrays.asList("io.opentelemetry.api.GlobalOpenTelemetry"));
+        OPTIONAL_COMPONENTS = Collections.unmodifiableMap(components);
+    }
+
+    @Activate
+    void activate(ComponentContext componentContext) {
+        enableAvailable(componentContext, OptionalComponentsEnabler.class.getClassLoader());
+    }
+
+    static void enableAvailable(ComponentContext componentContext, ClassLoader classLoader) {
+        for (Map.Entry<String, List<String>> component : OPTIONAL_COMPONENTS.entrySet()) {
+            String missingClass = getMissingClass(component.getValue(), classLoader);
+            if (missingClass == null) {
+                componentContext.enableComponent(component.getKey());
+            } else {
+                log.debug("Component {} not enabled, {} is not available.", component.getKey(), missingClass);
+            }
+        }
+    }
+
+    private static String getMissingClass(List<String> classNames, ClassLoader classLoader) {
+        for (String className : classNames) {
+            try {
+                classLoader.loadClass(className);
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return className;
+            }
+        }
+        return null;
+    }
+}
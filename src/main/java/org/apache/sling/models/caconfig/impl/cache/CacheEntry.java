@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cached configuration snapshot with its metadata.
+ */
+final class CacheEntry {
+
+    final CacheKey key;
+    final String partition;
+    final String resourcePath;
+    final Object value;
+    final long weight;
+    final long created;
+    volatile long staleSince;
+    final AtomicBoolean refreshing = new AtomicBoolean();
+    final AtomicInteger coldAccessCount = new AtomicInteger();
+
+    // time of the last access in the hot tier, written by the owning cache segment
+    volatile long accessed;
+
+    // links maintained by the owning cache segment, guarded by the segment lock
+    CacheEntry prev;
+    CacheEntry next;
+    CacheEntry partitionPrev;
+    CacheEntry partitionNext;
+
+    CacheEntry(CacheKey key, String partition, String resourcePath, Object value) {
+        this.key = key;
+        this.partition = partition;
+        this.resourcePath = resourcePath;
+        this.value = value;
+        this.weight = WeightEstimator.estimate(value);
+        this.created = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Information about a cached entry.
+ */
+public final class CacheEntryInfo {
+
+    private final CacheKey key;
+    private final long weight;
+    private final boolean stale;
+    private final boolean softlyReferenced;
+
+    CacheEntryInfo(@NotNull CacheKey key, long weight, boolean stale, boolean softlyReferenced) {
+        this.key = key;
+        this.weight = weight;
+        this.stale = stale;
+        this.softlyReferenced = softlyReferenced;
+    }
+
+    public @NotNull CacheKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return Estimated size in bytes
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public boolean isSoftlyReferenced() {
+        return softlyReferenced;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces configuration changes into invalidation passes over the configuration cache.
+ * <p>
+ * Changed paths are reduced to their topmost paths (a change of a parent covers all changes below it) and matched
+ * against the cache entries in a single pass. If more paths than the threshold remain, the whole cache is
+ * invalidated instead. With an executor, changes arriving within the window are collected and invalidated
+ * together on the executor thread, so bulk changes like package installations do not invalidate and re-resolve
+ * the same entries over and over again.
+ * </p>
+ */
+public final class CacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    private final ConfigurationCache cache;
+    private final int threshold;
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+
+    private final Object lock = new Object();
+    private Set<String> pendingPaths = new HashSet<>();
+    private Set<String> pendingFallbackPaths = new HashSet<>();
+    private boolean scheduled;
+
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder fullInvalidations = new LongAdder();
+    private final LongAdder changedPaths = new LongAdder();
+
+    /**
+     * @param cache Configuration cache
+     * @param threshold Number of changed paths in one pass above which the whole cache is invalidated
+     * @param executor Executor for delayed invalidation, or null to invalidate synchronously
+     * @param windowMillis Time window changes are collected before they are invalidated on the executor
+     */
+    public CacheInvalidator(
+            @NotNull ConfigurationCache cache,
+            int threshold,
+            @Nullable ScheduledExecutorService executor,
+            long windowMillis) {
+        this.cache = cache;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param paths Changed configuration resource paths
+     * @param fallbackPaths Changed fallback configuration resource paths, affecting entries of all contexts
+     */
+    public void invalidate(@NotNull Collection<String> paths, @NotNull Collection<String> fallbackPaths) {
+        if (paths.isEmpty() && fallbackPaths.isEmpty()) {
+            return;
+        }
+        changedPaths.add(paths.size() + fallbackPaths.size());
+        if (executor == null) {
+            invalidateNow(paths, fallbackPaths);
+            return;
+        }
+        synchronized (lock) {
+            pendingPaths.addAll(paths);
+            pendingFallbackPaths.addAll(fallbackPaths);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        try {
+            executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Invalidation executor is shut down, invalidate synchronously.", ex);
+            flush();
+        }
+    }
+
+    /**
+     * Invalidates all collected changes.
+     */
+    public void flush() {
+        Set<String> paths;
+        Set<String> fallbackPaths;
+        synchronized (lock) {
+            paths = pendingPaths;
+            fallbackPaths = pendingFallbackPaths;
+            pendingPaths = new HashSet<>();
+            pendingFallbackPaths = new HashSet<>();
+            scheduled = false;
+        }
+        if (!paths.isEmpty() || !fallbackPaths.isEmpty()) {
+            invalidateNow(paths, fallbackPaths);
+        }
+    }
+
+    private void invalidateNow(@NotNull Collection<String> paths, @NotNull Collection<String> fallbackPaths) {
+        passes.increment();
+        List<String> topPaths = getTopmostPaths(paths);
+        List<String> topFallbackPaths = getTopmostPaths(fallbackPaths);
+        if (topPaths.size() + topFallbackPaths.size() > threshold) {
+            log.debug(
+                    "{} configuration paths changed, invalidate all cached configurations.",
+                    topPaths.size() + topFallbackPaths.size());
+            fullInvalidations.increment();
+            cache.invalidateAll();
+            return;
+        }
+        int count = cache.invalidate(topPaths, topFallbackPaths);
+        log.debug(
+                "{} configuration paths changed, invalidated {} cached configurations.",
+                topPaths.size() + topFallbackPaths.size(),
+                count);
+    }
+
+    /**
+     * @param paths Resource paths
+     * @return Paths that are not located below another of the given paths
+     */
+    static @NotNull List<String> getTopmostPaths(@NotNull Collection<String> paths) {
+        if (paths.size() <= 1) {
+            return new ArrayList<>(paths);
+        }
+        // shorter paths first, so parents are added before their descendants
+        Set<String> sorted = new TreeSet<>((path1, path2) -> path1.length() != path2.length()
+                ? Integer.compare(path1.length(), path2.length())
+                : path1.compareTo(path2));
+        sorted.addAll(paths);
+        Set<String> result = new HashSet<>();
+        List<String> topmost = new ArrayList<>();
+        for (String path : sorted) {
+            if (!hasAncestor(path, result)) {
+                result.add(path);
+                topmost.add(path);
+            }
+        }
+        return topmost;
+    }
+
+    private static boolean hasAncestor(@NotNull String path, @NotNull Set<String> paths) {
+        if (paths.contains("/")) {
+            return true;
+        }
+        String parent = path;
+        int index;
+        while ((index = parent.lastIndexOf('/')) > 0) {
+            parent = parent.substring(0, index);
+            if (paths.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Number of invalidation passes over the cache
+     */
+    public long getPasses() {
+        return passes.sum();
+    }
+
+    /**
+     * @return Number of passes invalidating the whole cache because the threshold was exceeded
+     */
+    public long getFullInvalidations() {
+        return fullInvalidations.sum();
+    }
+
+    /**
+     * @return Number of changed paths received
+     */
+    public long getChangedPaths() {
+        return changedPaths.sum();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Key of a cached configuration: context, configuration name and whether a single configuration or a
+ * configuration collection was resolved.
+ */
+public final class CacheKey {
+
+    private final ContextKey contextKey;
+    private final String configName;
+    private final boolean collection;
+    private final int hashCode;
+
+    public CacheKey(@NotNull ContextKey contextKey, @NotNull String configName, boolean collection) {
+        this.contextKey = contextKey;
+        this.configName = configName;
+        this.collection = collection;
+        this.hashCode = 31 * (31 * contextKey.hashCode() + configName.hashCode()) + (collection ? 1 : 0);
+    }
+
+    public @NotNull ContextKey getContextKey() {
+        return contextKey;
+    }
+
+    public @NotNull String getConfigName() {
+        return configName;
+    }
+
+    public boolean isCollection() {
+        return collection;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) obj;
+        return hashCode == other.hashCode
+                && collection == other.collection
+                && configName.equals(other.configName)
+                && contextKey.equals(other.contextKey);
+    }
+
+    @Override
+    public String toString() {
+        return configName + (collection ? "[]" : "") + "@" + contextKey;
+    }
+}
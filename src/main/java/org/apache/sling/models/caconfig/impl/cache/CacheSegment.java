@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lock stripe of the {@link CacheStore}. Keeps the entries of the stripe in least-recently-used order, both
+ * overall and per partition, using intrusive linked lists so that access and eviction are O(1).
+ * All methods are synchronized on the segment.
+ */
+final class CacheSegment {
+
+    private final Map<CacheKey, CacheEntry> entries = new HashMap<>();
+    private final CacheEntry lru = newSentinel();
+    private final Map<String, CacheEntry> partitionLrus = new HashMap<>();
+
+    synchronized CacheEntry get(CacheKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+            link(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return Replaced entry or null
+     */
+    synchronized CacheEntry put(CacheEntry entry) {
+        CacheEntry previous = entries.put(entry.key, entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        link(entry);
+        return previous;
+    }
+
+    synchronized boolean remove(CacheEntry entry) {
+        if (entries.remove(entry.key, entry)) {
+            unlink(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param partition Partition, or null for all partitions
+     * @param exclude Entry that must not be evicted
+     * @return Least recently used entry (of the given partition) or null if there is none other in this segment
+     */
+    synchronized CacheEntry peekEldest(String partition, CacheEntry exclude) {
+        CacheEntry eldest;
+        if (partition == null) {
+            eldest = lru.next == lru ? null : lru.next;
+        } else {
+            CacheEntry partitionLru = partitionLrus.get(partition);
+            eldest = partitionLru == null ? null : partitionLru.partitionNext;
+        }
+        // the excluded entry is the most recently used one, so there is no other candidate
+        return eldest == exclude ? null : eldest;
+    }
+
+    synchronized void collect(List<CacheEntry> result) {
+        result.addAll(entries.values());
+    }
+
+    synchronized List<CacheEntry> clear() {
+        List<CacheEntry> removed = new ArrayList<>(entries.values());
+        entries.clear();
+        lru.prev = lru;
+        lru.next = lru;
+        partitionLrus.clear();
+        return removed;
+    }
+
+    private void link(CacheEntry entry) {
+        entry.accessed = System.nanoTime();
+        entry.prev = lru.prev;
+        entry.next = lru;
+        lru.prev.next = entry;
+        lru.prev = entry;
+
+        CacheEntry partitionLru = partitionLrus.computeIfAbsent(entry.partition, partition -> newSentinel());
+        entry.partitionPrev = partitionLru.partitionPrev;
+        entry.partitionNext = partitionLru;
+        partitionLru.partitionPrev.partitionNext = entry;
+        partitionLru.partitionPrev = entry;
+    }
+
+    private void unlink(CacheEntry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+
+        entry.partitionPrev.partitionNext = entry.partitionNext;
+        entry.partitionNext.partitionPrev = entry.partitionPrev;
+        if (entry.partitionPrev == entry.partitionNext) {
+            // only sentinel left
+            partitionLrus.remove(entry.partition);
+        }
+        entry.partitionPrev = null;
+        entry.partitionNext = null;
+    }
+
+    private static CacheEntry newSentinel() {
+        CacheEntry sentinel = new CacheEntry(null, null, null, null);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        sentinel.partitionPrev = sentinel;
+        sentinel.partitionNext = sentinel;
+        return sentinel;
+    }
+}
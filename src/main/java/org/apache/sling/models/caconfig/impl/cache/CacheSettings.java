@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Settings for {@link ConfigurationCache}.
+ */
+public final class CacheSettings {
+
+    private long maxWeight = Long.MAX_VALUE;
+    private int maxEntries = Integer.MAX_VALUE;
+    private long partitionQuota;
+    private boolean softReferences;
+    private int promotionThreshold = 2;
+    private boolean staleWhileRevalidate;
+    private long maxStalenessMillis;
+    private Consumer<CacheKey> evictionListener = key -> {};
+
+    /**
+     * @param value Maximum estimated size of all strongly referenced entries in bytes
+     * @return this
+     */
+    public CacheSettings maxWeight(long value) {
+        this.maxWeight = value;
+        return this;
+    }
+
+    /**
+     * @param value Maximum number of strongly referenced entries
+     * @return this
+     */
+    public CacheSettings maxEntries(int value) {
+        this.maxEntries = value;
+        return this;
+    }
+
+    /**
+     * @param value Maximum estimated size of the entries of each context path in bytes, 0 = no partitions
+     * @return this
+     */
+    public CacheSettings partitionQuota(long value) {
+        this.partitionQuota = value;
+        return this;
+    }
+
+    /**
+     * @param value Keep entries evicted from the strongly referenced tier in a softly referenced tier
+     * @return this
+     */
+    public CacheSettings softReferences(boolean value) {
+        this.softReferences = value;
+        return this;
+    }
+
+    /**
+     * @param value Number of accesses in the softly referenced tier promoting an entry back to the strongly
+     *     referenced tier
+     * @return this
+     */
+    public CacheSettings promotionThreshold(int value) {
+        this.promotionThreshold = value;
+        return this;
+    }
+
+    /**
+     * @param value Serve stale entries while re-resolving them in background
+     * @return this
+     */
+    public CacheSettings staleWhileRevalidate(boolean value) {
+        this.staleWhileRevalidate = value;
+        return this;
+    }
+
+    /**
+     * @param value Maximum age of stale values served in stale-while-revalidate mode
+     * @return this
+     */
+    public CacheSettings maxStalenessMillis(long value) {
+        this.maxStalenessMillis = value;
+        return this;
+    }
+
+    /**
+     * @param value Notified about entries evicted from the strongly referenced tier due to the size limits
+     * @return this
+     */
+    public CacheSettings evictionListener(@NotNull Consumer<CacheKey> value) {
+        this.evictionListener = value;
+        return this;
+    }
+
+    long getMaxWeight() {
+        return maxWeight;
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    long getPartitionQuota() {
+        return partitionQuota;
+    }
+
+    boolean isSoftReferences() {
+        return softReferences;
+    }
+
+    int getPromotionThreshold() {
+        return promotionThreshold;
+    }
+
+    boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    Consumer<CacheKey> getEvictionListener() {
+        return evictionListener;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+/**
+ * Snapshot of the configuration cache statistics.
+ */
+public final class CacheStatistics {
+
+    private final int hotSize;
+    private final long hotWeight;
+    private final int coldSize;
+    private final long hotHits;
+    private final long coldHits;
+    private final long misses;
+    private final long promotions;
+    private final long demotions;
+    private final long evictions;
+    private final long collected;
+
+    CacheStatistics(
+            int hotSize,
+            long hotWeight,
+            int coldSize,
+            long hotHits,
+            long coldHits,
+            long misses,
+            long promotions,
+            long demotions,
+            long evictions,
+            long collected) {
+        this.hotSize = hotSize;
+        this.hotWeight = hotWeight;
+        this.coldSize = coldSize;
+        this.hotHits = hotHits;
+        this.coldHits = coldHits;
+        this.misses = misses;
+        this.promotions = promotions;
+        this.demotions = demotions;
+        this.evictions = evictions;
+        this.collected = collected;
+    }
+
+    /**
+     * @return Number of strongly referenced entries
+     */
+    public int getHotSize() {
+        return hotSize;
+    }
+
+    /**
+     * @return Estimated size of the strongly referenced entries in bytes
+     */
+    public long getHotWeight() {
+        return hotWeight;
+    }
+
+    /**
+     * @return Number of softly referenced entries not yet reclaimed
+     */
+    public int getColdSize() {
+        return coldSize;
+    }
+
+    /**
+     * @return Number of lookups served from the strongly referenced tier
+     */
+    public long getHotHits() {
+        return hotHits;
+    }
+
+    /**
+     * @return Number of lookups served from the softly referenced tier
+     */
+    public long getColdHits() {
+        return coldHits;
+    }
+
+    /**
+     * @return Number of lookups requiring configuration resolution
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of entries promoted from the softly to the strongly referenced tier
+     */
+    public long getPromotions() {
+        return promotions;
+    }
+
+    /**
+     * @return Number of entries demoted from the strongly to the softly referenced tier
+     */
+    public long getDemotions() {
+        return demotions;
+    }
+
+    /**
+     * @return Number of entries evicted from the strongly referenced tier due to size limits
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of softly referenced entries reclaimed by the garbage collector
+     */
+    public long getCollected() {
+        return collected;
+    }
+
+    /**
+     * @return Ratio of lookups served from cache
+     */
+    public double getHitRatio() {
+        long total = hotHits + coldHits + misses;
+        return total > 0 ? (double) (hotHits + coldHits) / total : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "hot=" + hotSize + " (" + hotWeight + " bytes), cold=" + coldSize + ", hotHits=" + hotHits
+                + ", coldHits=" + coldHits + ", misses=" + misses + ", promotions=" + promotions + ", demotions="
+                + demotions + ", evictions=" + evictions + ", collected=" + collected;
+    }
+}
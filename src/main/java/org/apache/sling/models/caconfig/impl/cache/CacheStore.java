@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Lock-striped, weight-bounded store for cache entries.
+ * <p>
+ * Entries are evicted in approximate least-recently-used order when the estimated total size exceeds the global
+ * budget or the number of entries exceeds the maximum: each eviction compares the least recently used entries of a
+ * few lock stripes, starting with the stripe of the inserted entry, and evicts the oldest of them. Optionally each partition (context path) has its own
+ * quota - an entry exceeding the quota of its partition evicts entries of the same partition only, so that large
+ * configurations of a few sites cannot push out the configurations of all other sites.
+ * </p>
+ */
+final class CacheStore {
+
+    // number of segments compared per eviction
+    static final int EVICTION_SAMPLE_SEGMENTS = 4;
+
+    private final CacheSegment[] segments;
+    private final int segmentMask;
+    private final long maxWeight;
+    private final int maxEntries;
+    private final long partitionQuota;
+
+    private final AtomicLong weight = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+    // only partitions with entries, so the map does not grow with contexts that come and go
+    private final ConcurrentMap<String, Long> partitionWeights = new ConcurrentHashMap<>();
+    private final LongAdder evictionCount = new LongAdder();
+    private final Consumer<CacheEntry> evictionListener;
+
+    /**
+     * @param maxWeight Maximum estimated size of all entries in bytes
+     * @param maxEntries Maximum number of entries
+     * @param partitionQuota Maximum estimated size of all entries of a partition in bytes, 0 = no partition quota
+     * @param evictionListener Is notified about entries evicted due to size limits
+     */
+    CacheStore(long maxWeight, int maxEntries, long partitionQuota, Consumer<CacheEntry> evictionListener) {
+        this(
+                Integer.highestOneBit(Math.max(4, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1,
+                maxWeight,
+                maxEntries,
+                partitionQuota,
+                evictionListener);
+    }
+
+    /**
+     * @param segmentCount Number of segments, power of two
+     */
+    CacheStore(
+            int segmentCount,
+            long maxWeight,
+            int maxEntries,
+            long partitionQuota,
+            Consumer<CacheEntry> evictionListener) {
+        this.segments = new CacheSegment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new CacheSegment();
+        }
+        this.segmentMask = segmentCount - 1;
+        this.maxWeight = maxWeight;
+        this.maxEntries = maxEntries;
+        this.partitionQuota = partitionQuota;
+        this.evictionListener = evictionListener;
+    }
+
+    private int segmentIndex(CacheKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & segmentMask;
+    }
+
+    CacheEntry get(CacheKey key) {
+        return segments[segmentIndex(key)].get(key);
+    }
+
+    void put(CacheEntry entry) {
+        CacheEntry previous = segments[segmentIndex(entry.key)].put(entry);
+        added(entry);
+        if (previous != null) {
+            removed(previous);
+        }
+        if (partitionQuota > 0) {
+            while (partitionWeight(entry.partition) > partitionQuota) {
+                if (!evict(entry.partition, entry)) {
+                    evictSelf(entry);
+                    return;
+                }
+            }
+        }
+        while (weight.get() > maxWeight || size.get() > maxEntries) {
+            if (!evict(null, entry)) {
+                evictSelf(entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evicts the new entry itself if it exceeds the limits on its own.
+     */
+    private void evictSelf(CacheEntry entry) {
+        if (remove(entry)) {
+            evictionCount.increment();
+            evictionListener.accept(entry);
+        }
+    }
+
+    boolean remove(CacheEntry entry) {
+        if (segments[segmentIndex(entry.key)].remove(entry)) {
+            removed(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Evicts the least recently used entry of a sample of segments, starting with the segment of the inserted entry.
+     * Only if the sampled segments have no candidate the remaining segments are searched. Segments are only locked
+     * one at a time, so an entry accessed concurrently may still be evicted - the order is approximate.
+     * @param partition Partition to evict from, or null for all partitions
+     * @param exclude Entry that must not be evicted, its segment is sampled first
+     * @return false if there is no entry to evict
+     */
+    private boolean evict(String partition, CacheEntry exclude) {
+        int start = segmentIndex(exclude.key);
+        CacheEntry eldest = null;
+        for (int i = 0; i < segments.length && (eldest == null || i < EVICTION_SAMPLE_SEGMENTS); i++) {
+            CacheEntry candidate = segments[(start + i) & segmentMask].peekEldest(partition, exclude);
+            if (candidate != null && (eldest == null || candidate.accessed - eldest.accessed < 0)) {
+                eldest = candidate;
+            }
+        }
+        if (eldest == null) {
+            return false;
+        }
+        // if the entry was removed or replaced concurrently the caller checks the limits again
+        if (remove(eldest)) {
+            evictionCount.increment();
+            evictionListener.accept(eldest);
+        }
+        return true;
+    }
+
+    private void added(CacheEntry entry) {
+        weight.addAndGet(entry.weight);
+        size.incrementAndGet();
+        addPartitionWeight(entry.partition, entry.weight);
+    }
+
+    private void removed(CacheEntry entry) {
+        weight.addAndGet(-entry.weight);
+        size.decrementAndGet();
+        addPartitionWeight(entry.partition, -entry.weight);
+    }
+
+    private void addPartitionWeight(String partition, long delta) {
+        partitionWeights.compute(partition, (key, value) -> {
+            long result = (value != null ? value : 0) + delta;
+            return result != 0 ? result : null;
+        });
+    }
+
+    List<CacheEntry> entries() {
+        List<CacheEntry> result = new ArrayList<>();
+        for (CacheSegment segment : segments) {
+            segment.collect(result);
+        }
+        return result;
+    }
+
+    void clear() {
+        for (CacheSegment segment : segments) {
+            for (CacheEntry entry : segment.clear()) {
+                removed(entry);
+            }
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    long weight() {
+        return weight.get();
+    }
+
+    long partitionWeight(String partition) {
+        return partitionWeights.getOrDefault(partition, 0L);
+    }
+
+    int partitionCount() {
+        return partitionWeights.size();
+    }
+
+    long evictionCount() {
+        return evictionCount.sum();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps a monotonically increasing change-stamp per context path and configuration reference.
+ * <p>
+ * Stamps are only tracked for paths that were part of a stamp lookup before, so content changes outside of context
+ * paths do not allocate anything. A path is registered with the current clock value, which guarantees that the stamp
+ * of a context never decreases - also when a new context path or configuration reference appears in its chain.
+ * If the clock moved while a path was registered, the path gets the new clock value, as the concurrent change may
+ * have missed it.
+ * The clock starts with the current time, so stamps keep increasing across restarts and can be used for HTTP
+ * cache validators.
+ * </p>
+ * <p>
+ * The number of tracked paths is bounded. Evicting a path is safe: it is registered again with the current clock
+ * value, which is not lower than its evicted stamp, so the stamp may increase without a change but never decreases.
+ * </p>
+ */
+public final class ChangeStamps {
+
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final AtomicLong clock;
+    private final int maxEntries;
+    private final Map<String, Long> contextPathStamps = new ConcurrentHashMap<>();
+    private final Map<String, Long> configRefStamps = new ConcurrentHashMap<>();
+    private volatile long globalStamp;
+
+    public ChangeStamps() {
+        this(System.currentTimeMillis(), DEFAULT_MAX_ENTRIES);
+    }
+
+    ChangeStamps(long initialStamp, int maxEntries) {
+        this.clock = new AtomicLong(initialStamp);
+        this.maxEntries = maxEntries;
+        this.globalStamp = initialStamp;
+    }
+
+    /**
+     * @param contextKey Context key
+     * @return Change-stamp of all configurations resolved for the context
+     */
+    public long getStamp(@NotNull ContextKey contextKey) {
+        long stamp = globalStamp;
+        for (String contextPath : contextKey.getContextPaths()) {
+            stamp = Math.max(stamp, getStamp(contextPathStamps, contextPath));
+        }
+        for (String configRef : contextKey.getConfigRefs()) {
+            if (StringUtils.isNotEmpty(configRef)) {
+                stamp = Math.max(stamp, getStamp(configRefStamps, configRef));
+            }
+        }
+        return stamp;
+    }
+
+    private long getStamp(@NotNull Map<String, Long> stamps, @NotNull String path) {
+        Long stamp = stamps.get(path);
+        if (stamp != null) {
+            return stamp;
+        }
+        long registered = clock.get();
+        stamp = stamps.putIfAbsent(path, registered);
+        if (stamp != null) {
+            return stamp;
+        }
+        stamp = registered;
+        long current = clock.get();
+        if (current != registered) {
+            // a concurrent change may have updated the stamps before the path was registered
+            stamp = stamps.merge(path, current, Math::max);
+        }
+        if (stamps.size() > maxEntries) {
+            // evict in batches, the iteration order of the map is arbitrary
+            Iterator<String> paths = stamps.keySet().iterator();
+            while (stamps.size() > maxEntries * 3 / 4 && paths.hasNext()) {
+                paths.next();
+                paths.remove();
+            }
+        }
+        return stamp;
+    }
+
+    int size() {
+        return contextPathStamps.size() + configRefStamps.size();
+    }
+
+    /**
+     * Signals a change of a configuration resource. All configuration references the path is located in, or which
+     * are located below the path, get a new stamp.
+     * @param path Changed configuration resource path
+     */
+    public void configurationChanged(@NotNull String path) {
+        long stamp = clock.incrementAndGet();
+        for (Map.Entry<String, Long> entry : configRefStamps.entrySet()) {
+            if (ContextKey.isSameOrDescendant(path, entry.getKey())
+                    || ContextKey.isSameOrDescendant(entry.getKey(), path)) {
+                entry.setValue(stamp);
+            }
+        }
+    }
+
+    /**
+     * Signals a change of a fallback configuration, which affects all contexts.
+     */
+    public void fallbackConfigurationChanged() {
+        globalStamp = clock.incrementAndGet();
+    }
+
+    /**
+     * Signals a change of a context resource, e.g. of its {@code sling:configRef} property.
+     * @param path Changed content resource path
+     */
+    public void contextChanged(@NotNull String path) {
+        contextPathStamps.computeIfPresent(path, (key, value) -> clock.incrementAndGet());
+    }
+}
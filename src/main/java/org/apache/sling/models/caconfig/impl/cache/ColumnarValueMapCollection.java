@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compact read-only representation of a configuration collection.
+ * <p>
+ * Instead of one map per item carrying its own copy of all keys, the collection stores one shared table of
+ * interned property names and one value array per property (column). Columns containing only integer, long,
+ * double or boolean values are stored as primitive arrays. Items are exposed as lightweight read-only
+ * {@link ValueMap} views.
+ * </p>
+ */
+final class ColumnarValueMapCollection extends AbstractList<ValueMap> implements RandomAccess, Snapshot {
+
+    private final int size;
+    private final String[] keys;
+    private final Column[] columns;
+    private final ContentKey contentKey;
+    private volatile List<ConfigurationView> views;
+
+    ColumnarValueMapCollection(@NotNull Collection<? extends Map<String, Object>> items) {
+        this.size = items.size();
+
+        // collect property names in order of first occurrence
+        Map<String, Integer> keyIndex = new LinkedHashMap<>();
+        for (Map<String, Object> item : items) {
+            for (String key : item.keySet()) {
+                keyIndex.computeIfAbsent(key, k -> keyIndex.size());
+            }
+        }
+        this.keys = new String[keyIndex.size()];
+        for (Map.Entry<String, Integer> entry : keyIndex.entrySet()) {
+            keys[entry.getValue()] = entry.getKey().intern();
+        }
+
+        // fill columns
+        Object[][] values = new Object[keys.length][size];
+        int row = 0;
+        for (Map<String, Object> item : items) {
+            for (Map.Entry<String, Object> entry : item.entrySet()) {
+                values[keyIndex.get(entry.getKey())][row] = entry.getValue();
+            }
+            row++;
+        }
+        this.columns = new Column[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            columns[i] = Column.of(values[i]);
+        }
+        this.contentKey = new ContentKey(this, 31 * size + contentHashCode());
+    }
+
+    private int contentHashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            hash += keys[i].hashCode() ^ columns[i].getContentKey().hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public ValueMap get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Item(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Configuration views of all items, created on first access and shared by all users of this snapshot
+     */
+    List<ConfigurationView> getViews() {
+        List<ConfigurationView> result = views;
+        if (result == null) {
+            result = ConfigurationSnapshots.toViews(this);
+            views = result;
+        }
+        return result;
+    }
+
+    @Override
+    public ContentKey getContentKey() {
+        return contentKey;
+    }
+
+    @Override
+    public boolean contentEquals(Snapshot snapshot) {
+        if (!(snapshot instanceof ColumnarValueMapCollection)) {
+            return false;
+        }
+        ColumnarValueMapCollection other = (ColumnarValueMapCollection) snapshot;
+        if (size != other.size || keys.length != other.keys.length) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            int otherColumn = other.columnIndex(keys[i]);
+            if (otherColumn < 0) {
+                return false;
+            }
+            // columns are shared as well, so columns with equal content are usually the same instance
+            if (columns[i] != other.columns[otherColumn] && !columns[i].contentEquals(other.columns[otherColumn])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int columnIndex(Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Estimated retained size in bytes
+     */
+    long estimateWeight() {
+        long weight = WeightEstimator.OBJECT_OVERHEAD * 2L + (long) WeightEstimator.REFERENCE_SIZE * keys.length * 2;
+        for (int i = 0; i < keys.length; i++) {
+            weight += WeightEstimator.estimate(keys[i]) + columns[i].estimateWeight();
+        }
+        return weight;
+    }
+
+    /**
+     * Read-only view of one item of the collection.
+     */
+    private final class Item extends AbstractMap<String, Object> implements ValueMap {
+
+        private final int row;
+        private ValueMap converter;
+
+        Item(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int column = columnIndex(key);
+            return column >= 0 ? columns[column].read(row) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int column = columnIndex(key);
+            return column >= 0 && columns[column].isPresent(row);
+        }
+
+        @Override
+        public <T> T get(@NotNull String name, @NotNull Class<T> type) {
+            return converter().get(name, type);
+        }
+
+        @Override
+        public <T> @NotNull T get(@NotNull String name, @NotNull T defaultValue) {
+            return converter().get(name, defaultValue);
+        }
+
+        private ValueMap converter() {
+            if (converter == null) {
+                // reuse the type conversion rules of the Sling API - wrap to prevent delegation back to this map
+                converter = new ValueMapDecorator(Collections.unmodifiableMap(this));
+            }
+            return converter;
+        }
+
+        @Override
+        public @NotNull Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public @NotNull Iterator<Map.Entry<String, Object>> iterator() {
+                    return new EntryIterator(row);
+                }
+
+                @Override
+                public int size() {
+                    int count = 0;
+                    for (Column column : columns) {
+                        if (column.isPresent(row)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final int row;
+        private int next;
+
+        EntryIterator(int row) {
+            this.row = row;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            int column = from;
+            while (column < columns.length && !columns[column].isPresent(row)) {
+                column++;
+            }
+            return column;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < columns.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry =
+                    new AbstractMap.SimpleImmutableEntry<>(keys[next], columns[next].read(row));
+            next = advance(next + 1);
+            return entry;
+        }
+    }
+
+    /**
+     * Column of property values. Columns are shared with other snapshots of equal content as well, so a collection
+     * re-resolved after a few items were edited in place shares all unchanged columns with the previous snapshot.
+     * Adding or removing items changes the length of all columns, in this case no columns are shared.
+     */
+    private abstract static class Column implements Snapshot {
+
+        // null if values are present for all items
+        private final BitSet present;
+        private final int size;
+        private ContentKey contentKey;
+
+        Column(BitSet present, int size) {
+            this.present = present;
+            this.size = size;
+        }
+
+        @Override
+        public ContentKey getContentKey() {
+            return contentKey;
+        }
+
+        @Override
+        public boolean contentEquals(Snapshot snapshot) {
+            if (snapshot == null || snapshot.getClass() != getClass()) {
+                return false;
+            }
+            Column other = (Column) snapshot;
+            if (size != other.size) {
+                return false;
+            }
+            for (int row = 0; row < size; row++) {
+                if (!SnapshotInterner.valueEquals(get(row), other.get(row))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        final boolean isPresent(int row) {
+            return present == null || present.get(row);
+        }
+
+        final Object get(int row) {
+            return isPresent(row) ? getValue(row) : null;
+        }
+
+        /**
+         * @return Value for readers outside the snapshot, with mutable values copied as columns are shared
+         */
+        final Object read(int row) {
+            return ConfigurationSnapshots.copyMutable(get(row));
+        }
+
+        abstract Object getValue(int row);
+
+        abstract long estimateWeight();
+
+        static Column of(Object[] values) {
+            Column column = create(values);
+            int hash = 1;
+            for (int row = 0; row < values.length; row++) {
+                hash = 31 * hash + SnapshotInterner.valueHashCode(column.get(row));
+            }
+            column.contentKey = new ContentKey(column, hash);
+            return SnapshotInterner.intern(column);
+        }
+
+        private static Column create(Object[] values) {
+            BitSet present = new BitSet(values.length);
+            Class<?> commonType = null;
+            boolean mixed = false;
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                present.set(i);
+                if (commonType == null) {
+                    commonType = value.getClass();
+                } else if (commonType != value.getClass()) {
+                    mixed = true;
+                }
+            }
+            BitSet presence = present.cardinality() == values.length ? null : present;
+            if (!mixed && commonType == Integer.class) {
+                int[] ints = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    ints[i] = values[i] != null ? (Integer) values[i] : 0;
+                }
+                return new IntColumn(presence, ints);
+            }
+            if (!mixed && commonType == Long.class) {
+                long[] longs = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    longs[i] = values[i] != null ? (Long) values[i] : 0L;
+                }
+                return new LongColumn(presence, longs);
+            }
+            if (!mixed && commonType == Double.class) {
+                double[] doubles = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    doubles[i] = values[i] != null ? (Double) values[i] : 0d;
+                }
+                return new DoubleColumn(presence, doubles);
+            }
+            if (!mixed && commonType == Boolean.class) {
+                BitSet booleans = new BitSet(values.length);
+                for (int i = 0; i < values.length; i++) {
+                    booleans.set(i, values[i] != null && (Boolean) values[i]);
+                }
+                return new BooleanColumn(presence, booleans, values.length);
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = SnapshotInterner.internValue(values[i]);
+            }
+            return new ObjectColumn(presence, values);
+        }
+
+        long presenceWeight() {
+            return present != null ? WeightEstimator.OBJECT_OVERHEAD + present.size() / 8 : 0;
+        }
+    }
+
+    private static final class IntColumn extends Column {
+
+        private final int[] values;
+
+        IntColumn(BitSet present, int[] values) {
+            super(present, values.length);
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        long estimateWeight() {
+            return WeightEstimator.OBJECT_OVERHEAD + 4L * values.length + presenceWeight();
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private final long[] values;
+
+        LongColumn(BitSet present, long[] values) {
+            super(present, values.length);
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        long estimateWeight() {
+            return WeightEstimator.OBJECT_OVERHEAD + 8L * values.length + presenceWeight();
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private final double[] values;
+
+        DoubleColumn(BitSet present, double[] values) {
+            super(present, values.length);
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        long estimateWeight() {
+            return WeightEstimator.OBJECT_OVERHEAD + 8L * values.length + presenceWeight();
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+
+        private final BitSet values;
+
+        BooleanColumn(BitSet present, BitSet values, int size) {
+            super(present, size);
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        long estimateWeight() {
+            return WeightEstimator.OBJECT_OVERHEAD + values.size() / 8 + presenceWeight();
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private final Object[] values;
+
+        ObjectColumn(BitSet present, Object[] values) {
+            super(present, values.length);
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        long estimateWeight() {
+            long weight = WeightEstimator.OBJECT_OVERHEAD
+                    + (long) WeightEstimator.REFERENCE_SIZE * values.length
+                    + presenceWeight();
+            for (Object value : values) {
+                weight += WeightEstimator.estimate(value);
+            }
+            return weight;
+        }
+    }
+}
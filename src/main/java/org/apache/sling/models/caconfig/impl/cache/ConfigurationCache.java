@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared cache for resolved configuration snapshots.
+ * <p>
+ * Entries are held in a strongly referenced hot tier bounded by entry count and estimated size. Optionally, entries
+ * evicted from the hot tier are demoted to a softly referenced cold tier the JVM may reclaim under memory pressure;
+ * entries accessed frequently in the cold tier are promoted back to the hot tier.
+ * </p>
+ * <p>
+ * Entries are invalidated by configuration resource changes. In stale-while-revalidate mode an invalidated entry
+ * is only marked as stale: the next reader gets the stale value immediately while a single background task
+ * re-resolves the entry. Stale values older than the configured maximum staleness are re-resolved synchronously.
+ * </p>
+ * <p>
+ * A change only invalidates the configuration the changed resource belongs to, e.g. editing one item of a
+ * configuration collection invalidates that collection only. The changes of a batch of events are invalidated in a
+ * single pass, and bulk changes like package installations can be collected within an invalidation window at the
+ * price of serving the previous configuration for the window duration. Snapshots with equal content share a single
+ * instance across contexts, but are counted with their full size against the budget.
+ * </p>
+ */
+public final class ConfigurationCache {
+
+    /**
+     * Re-resolves a cache entry in background, outside of any request.
+     */
+    @FunctionalInterface
+    public interface Reloader {
+
+        /**
+         * @param key Cache key
+         * @param resourcePath Path of the resource the entry was originally resolved for
+         * @return Re-resolved configuration snapshot or null if it cannot be resolved anymore
+         */
+        @Nullable
+        Object reload(@NotNull CacheKey key, @NotNull String resourcePath);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationCache.class);
+
+    private final CacheStore store;
+    private final SoftCacheTier coldTier;
+    private final boolean partitioned;
+    private final int promotionThreshold;
+    private final boolean staleWhileRevalidate;
+    private final long maxStalenessMillis;
+    private final Reloader reloader;
+    private final Executor executor;
+    private final Consumer<CacheKey> evictionListener;
+
+    // incremented on each invalidation to detect values resolved concurrently to a configuration change
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final LongAdder hotHits = new LongAdder();
+    private final LongAdder coldHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+
+    /**
+     * @param settings Cache settings
+     * @param reloader Re-resolves entries in background
+     * @param executor Executor for background re-resolution
+     */
+    public ConfigurationCache(@NotNull CacheSettings settings, @NotNull Reloader reloader, @NotNull Executor executor) {
+        this.coldTier = settings.isSoftReferences() ? new SoftCacheTier() : null;
+        this.store = new CacheStore(
+                settings.getMaxWeight(), settings.getMaxEntries(), settings.getPartitionQuota(), this::demote);
+        this.partitioned = settings.getPartitionQuota() > 0;
+        this.promotionThreshold = settings.getPromotionThreshold();
+        this.staleWhileRevalidate = settings.isStaleWhileRevalidate();
+        this.maxStalenessMillis = settings.getMaxStalenessMillis();
+        this.reloader = reloader;
+        this.executor = executor;
+        this.evictionListener = settings.getEvictionListener();
+    }
+
+    /**
+     * Get cached configuration snapshot, resolve it if not cached or expired.
+     * @param key Cache key
+     * @param resourcePath Path of the resource the configuration is resolved for
+     * @param loader Resolves the configuration snapshot, returns null if it cannot be resolved
+     * @return Configuration snapshot or null if the loader cannot resolve it
+     */
+    public @Nullable Object get(@NotNull CacheKey key, @NotNull String resourcePath, @NotNull Supplier<Object> loader) {
+        return get(key, resourcePath, -1, loader);
+    }
+
+    /**
+     * Get cached configuration snapshot, resolve it if not cached, expired or older than the given maximum age.
+     * @param key Cache key
+     * @param resourcePath Path of the resource the configuration is resolved for
+     * @param maxAgeMillis Maximum age of the cached snapshot, -1 for no limit
+     * @param loader Resolves the configuration snapshot, returns null if it cannot be resolved
+     * @return Configuration snapshot or null if the loader cannot resolve it
+     */
+    public @Nullable Object get(
+            @NotNull CacheKey key, @NotNull String resourcePath, long maxAgeMillis, @NotNull Supplier<Object> loader) {
+        CacheEntry entry = lookup(key);
+        if (entry != null && maxAgeMillis >= 0 && System.currentTimeMillis() - entry.created >= maxAgeMillis) {
+            log.debug("Entry {} exceeded maximum age of injection point, resolve synchronously.", key);
+        } else if (entry != null) {
+            long staleSince = entry.staleSince;
+            if (staleSince == 0) {
+                return entry.value;
+            }
+            if (System.currentTimeMillis() - staleSince <= maxStalenessMillis) {
+                scheduleRefresh(entry);
+                return entry.value;
+            }
+            log.debug("Stale entry {} exceeded maximum staleness, resolve synchronously.", key);
+        }
+        misses.increment();
+        long invalidationCountBefore = invalidationCount.get();
+        Object value = loader.get();
+        if (value != null) {
+            put(key, resourcePath, value, invalidationCountBefore, 0);
+        }
+        return value;
+    }
+
+    /**
+     * Checks without counting an access whether {@link #get(CacheKey, String, long, Supplier)} would return the
+     * cached snapshot without resolving it.
+     * @param key Cache key
+     * @param maxAgeMillis Maximum age of the cached snapshot, -1 for no limit
+     * @return true if the snapshot is served from the cache
+     */
+    public boolean contains(@NotNull CacheKey key, long maxAgeMillis) {
+        CacheEntry entry = store.get(key);
+        if (entry == null && coldTier != null) {
+            entry = coldTier.get(key);
+        }
+        if (entry == null || (maxAgeMillis >= 0 && System.currentTimeMillis() - entry.created >= maxAgeMillis)) {
+            return false;
+        }
+        long staleSince = entry.staleSince;
+        return staleSince == 0 || System.currentTimeMillis() - staleSince <= maxStalenessMillis;
+    }
+
+    /**
+     * @param staleSince Time the replaced entry became stale, 0 if unknown
+     */
+    private void put(CacheKey key, String resourcePath, Object value, long invalidationCountBefore, long staleSince) {
+        CacheEntry entry = new CacheEntry(key, getPartition(key), resourcePath, value);
+        if (invalidationCount.get() != invalidationCountBefore) {
+            // configuration changed while resolving - value may already be outdated
+            if (!staleWhileRevalidate) {
+                return;
+            }
+            // keep the time the replaced entry became stale, so the maximum staleness is not extended by refreshes
+            entry.staleSince = staleSince != 0 ? staleSince : System.currentTimeMillis();
+        }
+        // remove the cold copy first, the store may demote the new entry right away if it exceeds the limits
+        if (coldTier != null) {
+            coldTier.remove(key);
+        }
+        store.put(entry);
+    }
+
+    private CacheEntry lookup(CacheKey key) {
+        CacheEntry entry = store.get(key);
+        if (entry != null) {
+            hotHits.increment();
+            return entry;
+        }
+        if (coldTier == null) {
+            return null;
+        }
+        entry = coldTier.get(key);
+        if (entry != null) {
+            coldHits.increment();
+            // frequently accessed entries are moved back to the strongly referenced tier
+            if (entry.coldAccessCount.incrementAndGet() >= promotionThreshold && coldTier.remove(entry)) {
+                promotions.increment();
+                store.put(entry);
+            }
+        }
+        return entry;
+    }
+
+    private void demote(CacheEntry entry) {
+        evictionListener.accept(entry.key);
+        if (coldTier != null) {
+            demotions.increment();
+            coldTier.put(entry);
+        }
+    }
+
+    private boolean isCurrent(CacheEntry entry) {
+        return store.get(entry.key) == entry || (coldTier != null && coldTier.get(entry.key) == entry);
+    }
+
+    private void remove(CacheEntry entry) {
+        if (!store.remove(entry) && coldTier != null) {
+            coldTier.remove(entry);
+        }
+    }
+
+    private String getPartition(CacheKey key) {
+        if (!partitioned) {
+            return "";
+        }
+        return StringUtils.defaultString(key.getContextKey().getContextPath());
+    }
+
+    private void scheduleRefresh(CacheEntry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(entry));
+        } catch (RejectedExecutionException ex) {
+            log.debug("Unable to schedule refresh of {}: {}", entry.key, ex.getMessage());
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void refresh(CacheEntry entry) {
+        long invalidationCountBefore = invalidationCount.get();
+        try {
+            Object value = reloader.reload(entry.key, entry.resourcePath);
+            if (value == null) {
+                remove(entry);
+            } else if (isCurrent(entry)) {
+                put(entry.key, entry.resourcePath, value, invalidationCountBefore, entry.staleSince);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Unable to refresh cached configuration {}", entry.key, ex);
+            remove(entry);
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Invalidate all entries depending on the given configuration resource path.
+     * @param path Changed resource path
+     */
+    public void invalidate(@NotNull String path) {
+        invalidate(Collections.singletonList(path), Collections.emptyList());
+    }
+
+    /**
+     * Invalidate entries of all contexts affected by a change of a fallback configuration resource.
+     * @param path Changed fallback configuration resource path
+     */
+    public void invalidateFallback(@NotNull String path) {
+        invalidate(Collections.emptyList(), Collections.singletonList(path));
+    }
+
+    /**
+     * Invalidate all entries affected by any of the given changes, in a single pass over the entries.
+     * @param paths Changed configuration resource paths
+     * @param fallbackPaths Changed fallback configuration resource paths, affecting entries of all contexts
+     * @return Number of invalidated entries
+     */
+    public int invalidate(@NotNull Collection<String> paths, @NotNull Collection<String> fallbackPaths) {
+        invalidationCount.incrementAndGet();
+        int count = 0;
+        for (CacheEntry entry : copyEntries()) {
+            if (isAffected(entry.key, paths, fallbackPaths)) {
+                invalidate(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isAffected(
+            @NotNull CacheKey key, @NotNull Collection<String> paths, @NotNull Collection<String> fallbackPaths) {
+        for (String path : fallbackPaths) {
+            if (ConfigurationPaths.affectsConfigName(path, key.getConfigName())) {
+                return true;
+            }
+        }
+        for (String path : paths) {
+            if (key.getContextKey().dependsOn(path)
+                    && ConfigurationPaths.affectsConfigName(path, key.getConfigName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        if (!staleWhileRevalidate) {
+            clear();
+            return;
+        }
+        for (CacheEntry entry : copyEntries()) {
+            invalidate(entry);
+        }
+    }
+
+    private void invalidate(CacheEntry entry) {
+        if (staleWhileRevalidate) {
+            if (entry.staleSince == 0) {
+                entry.staleSince = System.currentTimeMillis();
+            }
+        } else {
+            remove(entry);
+        }
+    }
+
+    private List<CacheEntry> copyEntries() {
+        List<CacheEntry> entries = store.entries();
+        if (coldTier != null) {
+            entries.addAll(coldTier.entries());
+        }
+        return entries;
+    }
+
+    /**
+     * Remove matching entries from both tiers.
+     * @param filter Filter
+     * @return Number of removed entries
+     */
+    public int remove(@NotNull Predicate<CacheKey> filter) {
+        invalidationCount.incrementAndGet();
+        int count = 0;
+        for (CacheEntry entry : copyEntries()) {
+            if (filter.test(entry.key)) {
+                remove(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Re-resolve matching entries in background. The current values are served until they are replaced.
+     * @param filter Filter
+     * @return Number of entries scheduled for refresh
+     */
+    public int refresh(@NotNull Predicate<CacheKey> filter) {
+        int count = 0;
+        for (CacheEntry entry : copyEntries()) {
+            if (filter.test(entry.key)) {
+                scheduleRefresh(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Information about all entries in both tiers
+     */
+    public @NotNull List<CacheEntryInfo> getEntries() {
+        List<CacheEntryInfo> result = new ArrayList<>();
+        for (CacheEntry entry : store.entries()) {
+            result.add(new CacheEntryInfo(entry.key, entry.weight, entry.staleSince != 0, false));
+        }
+        if (coldTier != null) {
+            for (CacheEntry entry : coldTier.entries()) {
+                result.add(new CacheEntryInfo(entry.key, entry.weight, entry.staleSince != 0, true));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        store.clear();
+        if (coldTier != null) {
+            coldTier.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached entries in both tiers
+     */
+    public int size() {
+        return store.size() + (coldTier != null ? coldTier.size() : 0);
+    }
+
+    /**
+     * @return Current cache statistics
+     */
+    public @NotNull CacheStatistics getStatistics() {
+        return new CacheStatistics(
+                store.size(),
+                store.weight(),
+                coldTier != null ? coldTier.size() : 0,
+                hotHits.sum(),
+                coldHits.sum(),
+                misses.sum(),
+                promotions.sum(),
+                demotions.sum(),
+                store.evictionCount(),
+                coldTier != null ? coldTier.collectedCount() : 0);
+    }
+
+    /**
+     * @return Number of stale entries
+     */
+    public int staleSize() {
+        int count = 0;
+        for (CacheEntry entry : copyEntries()) {
+            if (entry.staleSince != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
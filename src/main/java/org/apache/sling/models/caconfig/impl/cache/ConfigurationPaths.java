@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Maps configuration resource paths to configuration names.
+ */
+public final class ConfigurationPaths {
+
+    // default bucket name of context-aware configurations - paths in other buckets affect all configuration names
+    private static final String BUCKET_SEGMENT = "/sling:configs/";
+
+    private ConfigurationPaths() {
+        // static methods only
+    }
+
+    /**
+     * Checks whether a change of the given configuration resource path may affect the configuration with the given
+     * name. This is the case for the configuration resource itself, resources below it (e.g. collection items)
+     * and its parents. Paths outside a configuration bucket affect all configurations.
+     * @param path Changed configuration resource path
+     * @param configName Configuration name
+     * @return true if affected
+     */
+    public static boolean affectsConfigName(@NotNull String path, @NotNull String configName) {
+        int bucketIndex = path.indexOf(BUCKET_SEGMENT);
+        if (bucketIndex < 0) {
+            return true;
+        }
+        String relativePath = path.substring(bucketIndex + BUCKET_SEGMENT.length());
+        return StringUtils.equals(relativePath, configName)
+                || StringUtils.startsWith(relativePath, configName + "/")
+                || StringUtils.startsWith(configName, relativePath + "/");
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates immutable snapshots of resolved configuration values that can be shared across requests and threads.
+ */
+public final class ConfigurationSnapshots {
+
+    private ConfigurationSnapshots() {
+        // static methods only
+    }
+
+    /**
+     * @param valueMap Resolved configuration
+     * @return Read-only copy of the configuration properties detached from the resource,
+     *     shared with other snapshots of equal content
+     */
+    public static @NotNull ValueMap snapshot(@NotNull Map<String, Object> valueMap) {
+        Map<String, Object> values = new HashMap<>(valueMap.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : valueMap.entrySet()) {
+            values.put(entry.getKey(), SnapshotInterner.internValue(entry.getValue()));
+        }
+        return SnapshotInterner.intern(new ValueMapSnapshot(values));
+    }
+
+    /**
+     * @param valueMaps Resolved configuration collection
+     * @return Read-only list of read-only configuration snapshots, stored in a compact columnar representation
+     *     and shared with other snapshots of equal content
+     */
+    public static @NotNull List<ValueMap> snapshot(@NotNull Collection<ValueMap> valueMaps) {
+        if (valueMaps.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return SnapshotInterner.intern(new ColumnarValueMapCollection(valueMaps));
+    }
+
+    /**
+     * @param valueMap Resolved configuration or configuration snapshot
+     * @return Configuration view, shared with other users of the same snapshot
+     */
+    public static @NotNull ConfigurationView view(@NotNull ValueMap valueMap) {
+        if (valueMap instanceof ValueMapSnapshot) {
+            return ((ValueMapSnapshot) valueMap).getView();
+        }
+        return new ConfigurationViewImpl(valueMap);
+    }
+
+    /**
+     * @param valueMaps Resolved configuration collection or configuration collection snapshot
+     * @return Read-only list of configuration views, shared with other users of the same snapshot
+     */
+    public static @NotNull List<ConfigurationView> views(@NotNull Collection<ValueMap> valueMaps) {
+        if (valueMaps instanceof ColumnarValueMapCollection) {
+            return ((ColumnarValueMapCollection) valueMaps).getViews();
+        }
+        return toViews(valueMaps);
+    }
+
+    /**
+     * @param value Property value of a snapshot
+     * @return Copy of mutable values - arrays, calendars and dates - as snapshot values are shared, other values
+     *     are immutable and returned as is
+     */
+    static Object copyMutable(Object value) {
+        if (value instanceof Calendar) {
+            return ((Calendar) value).clone();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        if (!isArray(value)) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        if (length == 0) {
+            return value;
+        }
+        if (value instanceof Object[]) {
+            Object[] copy = ((Object[]) value).clone();
+            for (int i = 0; i < length; i++) {
+                copy[i] = copyMutable(copy[i]);
+            }
+            return copy;
+        }
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * @param value Property value of a snapshot
+     * @return true if the value has to be copied with {@link #copyMutable(Object)} before handing it out
+     */
+    static boolean isMutable(Object value) {
+        return value instanceof Calendar || value instanceof Date || isArray(value);
+    }
+
+    private static boolean isArray(Object value) {
+        return value != null && value.getClass().isArray();
+    }
+
+    static @NotNull List<ConfigurationView> toViews(@NotNull Collection<ValueMap> valueMaps) {
+        List<ConfigurationView> views = new ArrayList<>(valueMaps.size());
+        for (ValueMap valueMap : valueMaps) {
+            views.add(new ConfigurationViewImpl(valueMap));
+        }
+        return Collections.unmodifiableList(views);
+    }
+}
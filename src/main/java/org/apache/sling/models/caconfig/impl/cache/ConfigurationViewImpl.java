@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Configuration view storing the property values converted to int, long, double, boolean and string in primitive
+ * slots, one per property. Each slot is converted on first access, delegating to the {@link ValueMap} the view is
+ * created from, so the conversion rules are exactly the same and creating a view only costs the sorted property
+ * names. Array values are converted on first access and kept in the view as well.
+ */
+final class ConfigurationViewImpl implements ConfigurationView {
+
+    // flags per property: conversion done, and conversion result present
+    private static final int INT_CONVERTED = 1;
+    private static final int LONG_CONVERTED = 2;
+    private static final int DOUBLE_CONVERTED = 4;
+    private static final int BOOLEAN_CONVERTED = 8;
+    private static final int STRING_CONVERTED = 16;
+    private static final int INT = 32;
+    private static final int LONG = 64;
+    private static final int DOUBLE = 128;
+    private static final int BOOLEAN = 256;
+    private static final int TRUE = 512;
+
+    private static final int STRING_ARRAY = 0;
+    private static final int INT_ARRAY = 1;
+    private static final int LONG_ARRAY = 2;
+    private static final int DOUBLE_ARRAY = 3;
+    private static final int BOOLEAN_ARRAY = 4;
+    private static final int ARRAY_TYPES = 5;
+
+    private final ValueMap values;
+    private final String[] names;
+    // slot values are written before their flags, and read after them
+    private final AtomicIntegerArray flags;
+    private final int[] ints;
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] strings;
+    private final AtomicReferenceArray<Object> arrays;
+
+    ConfigurationViewImpl(@NotNull ValueMap values) {
+        this.values = values;
+        this.names = values.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        this.flags = new AtomicIntegerArray(names.length);
+        this.ints = new int[names.length];
+        this.longs = new long[names.length];
+        this.doubles = new double[names.length];
+        this.strings = new String[names.length];
+        this.arrays = new AtomicReferenceArray<>(names.length * ARRAY_TYPES);
+    }
+
+    private int indexOf(@NotNull String name) {
+        return Arrays.binarySearch(names, name);
+    }
+
+    /**
+     * Concurrent conversions of the same slot write equal values, so it does not matter which one wins.
+     * @return Flags of the property after adding the given flags
+     */
+    private int addFlags(int index, int addedFlags) {
+        return flags.accumulateAndGet(index, addedFlags, (current, added) -> current | added);
+    }
+
+    @Override
+    public @NotNull Set<String> getPropertyNames() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    @Override
+    public boolean contains(@NotNull String name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public @Nullable String getString(@NotNull String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        if ((flags.get(index) & STRING_CONVERTED) == 0) {
+            strings[index] = values.get(name, String.class);
+            addFlags(index, STRING_CONVERTED);
+        }
+        return strings[index];
+    }
+
+    @Override
+    public @NotNull String getString(@NotNull String name, @NotNull String defaultValue) {
+        String value = getString(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public int getInt(@NotNull String name, int defaultValue) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        int flag = flags.get(index);
+        if ((flag & INT_CONVERTED) == 0) {
+            Integer value = values.get(name, Integer.class);
+            if (value != null) {
+                ints[index] = value;
+            }
+            flag = addFlags(index, value != null ? INT_CONVERTED | INT : INT_CONVERTED);
+        }
+        return (flag & INT) != 0 ? ints[index] : defaultValue;
+    }
+
+    @Override
+    public long getLong(@NotNull String name, long defaultValue) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        int flag = flags.get(index);
+        if ((flag & LONG_CONVERTED) == 0) {
+            Long value = values.get(name, Long.class);
+            if (value != null) {
+                longs[index] = value;
+            }
+            flag = addFlags(index, value != null ? LONG_CONVERTED | LONG : LONG_CONVERTED);
+        }
+        return (flag & LONG) != 0 ? longs[index] : defaultValue;
+    }
+
+    @Override
+    public double getDouble(@NotNull String name, double defaultValue) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        int flag = flags.get(index);
+        if ((flag & DOUBLE_CONVERTED) == 0) {
+            Double value = values.get(name, Double.class);
+            if (value != null) {
+                doubles[index] = value;
+            }
+            flag = addFlags(index, value != null ? DOUBLE_CONVERTED | DOUBLE : DOUBLE_CONVERTED);
+        }
+        return (flag & DOUBLE) != 0 ? doubles[index] : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(@NotNull String name, boolean defaultValue) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return defaultValue;
+        }
+        int flag = flags.get(index);
+        if ((flag & BOOLEAN_CONVERTED) == 0) {
+            Boolean value = values.get(name, Boolean.class);
+            int converted = BOOLEAN_CONVERTED;
+            if (value != null) {
+                converted |= value ? BOOLEAN | TRUE : BOOLEAN;
+            }
+            flag = addFlags(index, converted);
+        }
+        return (flag & BOOLEAN) != 0 ? (flag & TRUE) != 0 : defaultValue;
+    }
+
+    @Override
+    public @NotNull String[] getStringArray(@NotNull String name) {
+        return ((String[]) getArray(name, STRING_ARRAY)).clone();
+    }
+
+    @Override
+    public @NotNull int[] getIntArray(@NotNull String name) {
+        return ((int[]) getArray(name, INT_ARRAY)).clone();
+    }
+
+    @Override
+    public @NotNull long[] getLongArray(@NotNull String name) {
+        return ((long[]) getArray(name, LONG_ARRAY)).clone();
+    }
+
+    @Override
+    public @NotNull double[] getDoubleArray(@NotNull String name) {
+        return ((double[]) getArray(name, DOUBLE_ARRAY)).clone();
+    }
+
+    @Override
+    public @NotNull boolean[] getBooleanArray(@NotNull String name) {
+        return ((boolean[]) getArray(name, BOOLEAN_ARRAY)).clone();
+    }
+
+    private @NotNull Object getArray(@NotNull String name, int arrayType) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return convertArray(null, arrayType);
+        }
+        int slot = index * ARRAY_TYPES + arrayType;
+        Object array = arrays.get(slot);
+        if (array == null) {
+            // concurrent conversions produce equal arrays, so it does not matter which one wins
+            array = convertArray(name, arrayType);
+            arrays.set(slot, array);
+        }
+        return array;
+    }
+
+    private @NotNull Object convertArray(@Nullable String name, int arrayType) {
+        switch (arrayType) {
+            case STRING_ARRAY:
+                String[] stringValues = name != null ? values.get(name, String[].class) : null;
+                return stringValues != null ? stringValues : new String[0];
+            case INT_ARRAY:
+                Integer[] intValues = name != null ? values.get(name, Integer[].class) : null;
+                return isComplete(name, intValues) ? unboxInts(intValues) : new int[0];
+            case LONG_ARRAY:
+                Long[] longValues = name != null ? values.get(name, Long[].class) : null;
+                return isComplete(name, longValues) ? unboxLongs(longValues) : new long[0];
+            case DOUBLE_ARRAY:
+                Double[] doubleValues = name != null ? values.get(name, Double[].class) : null;
+                return isComplete(name, doubleValues) ? unboxDoubles(doubleValues) : new double[0];
+            default:
+                Boolean[] booleanValues = name != null ? values.get(name, Boolean[].class) : null;
+                return booleanValues != null ? unboxBooleans(booleanValues) : new boolean[0];
+        }
+    }
+
+    /**
+     * Depending on its version the Sling type conversion omits values that cannot be converted, or fails for the
+     * whole array. Number arrays are only returned if all values could be converted.
+     * @return true if all values of the property were converted
+     */
+    private boolean isComplete(@Nullable String name, @Nullable Object[] convertedValues) {
+        if (name == null || convertedValues == null) {
+            return false;
+        }
+        Object value = values.get(name);
+        int length = value != null && value.getClass().isArray() ? Array.getLength(value) : 1;
+        return convertedValues.length == length;
+    }
+
+    private static int[] unboxInts(Integer[] values) {
+        return Arrays.stream(values).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long[] unboxLongs(Long[] values) {
+        return Arrays.stream(values).mapToLong(Long::longValue).toArray();
+    }
+
+    private static double[] unboxDoubles(Double[] values) {
+        return Arrays.stream(values).mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static boolean[] unboxBooleans(Boolean[] values) {
+        boolean[] result = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
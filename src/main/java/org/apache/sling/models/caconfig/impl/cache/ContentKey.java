@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+/**
+ * Content-based lookup key of a {@link Snapshot}.
+ */
+final class ContentKey {
+
+    private final Snapshot snapshot;
+    private final int hashCode;
+
+    ContentKey(Snapshot snapshot, int hashCode) {
+        this.snapshot = snapshot;
+        this.hashCode = hashCode;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ContentKey)) {
+            return false;
+        }
+        ContentKey other = (ContentKey) obj;
+        return hashCode == other.hashCode && snapshot.contentEquals(other.snapshot);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.caconfig.resource.spi.ContextResource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Identifies the context a configuration is resolved for: the chain of context paths together with their
+ * configuration references, nearest context first.
+ * All resources sharing the same chain resolve to the same configuration, so the chain is used as cache key
+ * instead of the resource path.
+ */
+public final class ContextKey {
+
+    /**
+     * Context key for resources without any context path - they all resolve to the fallback configurations.
+     */
+    public static final ContextKey NONE = new ContextKey(new String[0], new String[0]);
+
+    private final String[] contextPaths;
+    private final String[] configRefs;
+    private final int hashCode;
+
+    private ContextKey(String[] contextPaths, String[] configRefs) {
+        this.contextPaths = contextPaths;
+        this.configRefs = configRefs;
+        this.hashCode = 31 * Arrays.hashCode(contextPaths) + Arrays.hashCode(configRefs);
+    }
+
+    /**
+     * @param contextResources Context resources as returned by the context path strategy, nearest first
+     * @return Context key
+     */
+    public static @NotNull ContextKey of(@Nullable Iterator<ContextResource> contextResources) {
+        if (contextResources == null || !contextResources.hasNext()) {
+            return NONE;
+        }
+        List<String> paths = new ArrayList<>();
+        List<String> refs = new ArrayList<>();
+        while (contextResources.hasNext()) {
+            ContextResource contextResource = contextResources.next();
+            paths.add(contextResource.getResource().getPath());
+            refs.add(StringUtils.defaultString(contextResource.getConfigRef()));
+        }
+        return new ContextKey(paths.toArray(new String[0]), refs.toArray(new String[0]));
+    }
+
+    /**
+     * @return Nearest context path or null if the resource has no context
+     */
+    public @Nullable String getContextPath() {
+        return contextPaths.length > 0 ? contextPaths[0] : null;
+    }
+
+    String[] getContextPaths() {
+        return contextPaths;
+    }
+
+    String[] getConfigRefs() {
+        return configRefs;
+    }
+
+    /**
+     * Checks whether a change of the given resource path may affect configurations resolved for this context.
+     * This is the case if the path is located inside one of the referenced configuration resources, or if it is
+     * a parent of one of them (e.g. when a whole configuration tree is removed).
+     * @param path Changed resource path
+     * @return true if affected
+     */
+    public boolean dependsOn(@NotNull String path) {
+        for (String configRef : configRefs) {
+            if (StringUtils.isNotEmpty(configRef)
+                    && (isSameOrDescendant(path, configRef) || isSameOrDescendant(configRef, path))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param path Path
+     * @param parentPath Parent path
+     * @return true if the path is the same as or a descendant of the parent path
+     */
+    public static boolean isSameOrDescendant(@NotNull String path, @NotNull String parentPath) {
+        return StringUtils.equals(path, parentPath)
+                || StringUtils.equals(parentPath, "/")
+                || (path.startsWith(parentPath) && path.charAt(parentPath.length()) == '/');
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ContextKey)) {
+            return false;
+        }
+        ContextKey other = (ContextKey) obj;
+        return hashCode == other.hashCode
+                && Arrays.equals(contextPaths, other.contextPaths)
+                && Arrays.equals(configRefs, other.configRefs);
+    }
+
+    @Override
+    public String toString() {
+        return contextPaths.length > 0 ? contextPaths[0] + "[" + String.join(",", configRefs) + "]" : "<no context>";
+    }
+}
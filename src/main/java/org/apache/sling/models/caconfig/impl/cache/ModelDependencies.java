@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.ResourceWrapper;
+import org.apache.sling.api.wrappers.SlingHttpServletRequestWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records which cached Sling Models depend on which configurations.
+ * <p>
+ * Sling Models does not provide an API to evict cached models, so the injection context of each cached model is
+ * kept per adaptable instance - weakly referenced like in the model cache itself, in independently locked stripes -
+ * together with the change-stamp at injection time. A cached model is stale if the change-stamp of its context has
+ * changed since. The configuration names and context paths per model class are held in a {@link ClassValue}, so
+ * recording takes no shared lock and model bundles can be uninstalled.
+ * </p>
+ */
+public final class ModelDependencies {
+
+    // number of stripes of the injections map, power of two
+    private static final int STRIPES = 64;
+
+    private final ChangeStamps changeStamps;
+    // all tracked model classes, weakly referenced and only written when a model class is tracked first
+    private final Map<Class<?>, Boolean> modelClasses = new WeakHashMap<>();
+    private final ClassValue<ModelClassDependencies> modelClassDependencies = new ClassValue<ModelClassDependencies>() {
+        @Override
+        protected ModelClassDependencies computeValue(Class<?> type) {
+            synchronized (modelClasses) {
+                modelClasses.put(type, Boolean.TRUE);
+            }
+            return new ModelClassDependencies();
+        }
+    };
+    private final Map<Object, Map<Class<?>, Injection>>[] injections = newStripes();
+
+    public ModelDependencies(@NotNull ChangeStamps changeStamps) {
+        this.changeStamps = changeStamps;
+    }
+
+    /**
+     * Records a configuration injected into a cached model.
+     * @param adaptable Adaptable the model was created from
+     * @param modelClass Model class
+     * @param contextKey Context key of the configuration
+     * @param configName Configuration name, null if unknown
+     */
+    public void record(
+            @NotNull Object adaptable,
+            @NotNull Class<?> modelClass,
+            @NotNull ContextKey contextKey,
+            @Nullable String configName) {
+        ModelClassDependencies dependencies = modelClassDependencies.get(modelClass);
+        dependencies.contextPaths.add(toContextPath(contextKey));
+        if (configName != null) {
+            dependencies.configNames.add(configName);
+        }
+        Injection injection = new Injection(contextKey, changeStamps.getStamp(contextKey));
+        Object key = unwrap(adaptable);
+        Map<Object, Map<Class<?>, Injection>> stripe = getStripe(key);
+        synchronized (stripe) {
+            // a model created again for the same adaptable replaces the previous injection
+            stripe.computeIfAbsent(key, k -> new HashMap<>()).put(modelClass, injection);
+        }
+    }
+
+    /**
+     * @param adaptable Adaptable
+     * @param modelClass Model class
+     * @return true if configurations injected into the model cached for the adaptable have changed since
+     */
+    public boolean isStale(@NotNull Object adaptable, @NotNull Class<?> modelClass) {
+        Object key = unwrap(adaptable);
+        Map<Object, Map<Class<?>, Injection>> stripe = getStripe(key);
+        Injection injection;
+        synchronized (stripe) {
+            Map<Class<?>, Injection> modelInjections = stripe.get(key);
+            injection = modelInjections != null ? modelInjections.get(modelClass) : null;
+        }
+        return injection != null && changeStamps.getStamp(injection.contextKey) != injection.stamp;
+    }
+
+    /**
+     * @param contextKey Context key
+     * @param configNames Configuration names, or empty for all
+     * @return Cached model classes with injected configurations of the given context and names
+     */
+    public @NotNull Set<Class<?>> getModelClasses(
+            @NotNull ContextKey contextKey, @NotNull Collection<String> configNames) {
+        String contextPath = toContextPath(contextKey);
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Class<?> modelClass : getModelClasses()) {
+            ModelClassDependencies dependencies = modelClassDependencies.get(modelClass);
+            if (dependencies.contextPaths.contains(contextPath)
+                    && (configNames.isEmpty() || !Collections.disjoint(dependencies.configNames, configNames))) {
+                result.add(modelClass);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param modelClass Model class
+     * @return Names of configurations injected into cached instances of the model class
+     */
+    public @NotNull Set<String> getConfigNames(@NotNull Class<?> modelClass) {
+        synchronized (modelClasses) {
+            if (!modelClasses.containsKey(modelClass)) {
+                return Collections.emptySet();
+            }
+        }
+        return Collections.unmodifiableSet(modelClassDependencies.get(modelClass).configNames);
+    }
+
+    private @NotNull List<Class<?>> getModelClasses() {
+        synchronized (modelClasses) {
+            return new ArrayList<>(modelClasses.keySet());
+        }
+    }
+
+    private static @NotNull String toContextPath(@NotNull ContextKey contextKey) {
+        // fallback configurations only without context
+        return StringUtils.defaultString(contextKey.getContextPath());
+    }
+
+    private Map<Object, Map<Class<?>, Injection>> getStripe(@NotNull Object key) {
+        int hash = key.hashCode();
+        return injections[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Map<Class<?>, Injection>>[] newStripes() {
+        Map<Object, Map<Class<?>, Injection>>[] stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+        return stripes;
+    }
+
+    /**
+     * Wrappers delegate adaptTo to the wrapped object, so models are cached for the innermost adaptable.
+     */
+    private static @NotNull Object unwrap(@NotNull Object adaptable) {
+        Object result = adaptable;
+        while (true) {
+            if (result instanceof ResourceWrapper) {
+                result = ((ResourceWrapper) result).getResource();
+            } else if (result instanceof SlingHttpServletRequestWrapper) {
+                result = ((SlingHttpServletRequestWrapper) result).getSlingRequest();
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private static final class ModelClassDependencies {
+
+        private final Set<String> configNames = ConcurrentHashMap.newKeySet();
+        // nearest context paths of the injections
+        private final Set<String> contextPaths = ConcurrentHashMap.newKeySet();
+    }
+
+    private static final class Injection {
+
+        private final ContextKey contextKey;
+        private final long stamp;
+
+        Injection(ContextKey contextKey, long stamp) {
+            this.contextKey = contextKey;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+/**
+ * Immutable configuration snapshot that can be shared with other snapshots of equal content.
+ * Content equality is implemented separately from equals/hashCode to keep the {@link java.util.Map} and
+ * {@link java.util.List} contracts of the snapshots, while comparing array values by content.
+ */
+interface Snapshot {
+
+    /**
+     * @return Key for looking up snapshots of equal content
+     */
+    ContentKey getContentKey();
+
+    /**
+     * @param snapshot Other snapshot
+     * @return true if both snapshots have equal property content
+     */
+    boolean contentEquals(Snapshot snapshot);
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Flyweight pool for configuration snapshots and their string values.
+ * <p>
+ * Snapshots with equal property content - e.g. the configurations of many sites inheriting the same global
+ * defaults - share one immutable instance. String values commonly repeated across sites, like locales or URLs,
+ * share one string instance. The pools hold their instances weakly, so instances no longer referenced by the
+ * cache or any model are reclaimed. Each pool is split into independently locked stripes, so concurrent snapshot
+ * creation only contends for instances with colliding hash codes.
+ * </p>
+ * <p>
+ * Shared snapshots are only effectively immutable: they copy their array values on read.
+ * </p>
+ */
+final class SnapshotInterner {
+
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    // number of stripes per pool, power of two
+    private static final int STRIPES = 64;
+
+    // keys are only strongly referenced by their snapshot, so entries are removed once the snapshot is unreachable
+    private static final Map<ContentKey, WeakReference<Snapshot>>[] SNAPSHOTS = newStripes();
+    private static final Map<String, WeakReference<String>>[] STRINGS = newStripes();
+
+    private SnapshotInterner() {
+        // static methods only
+    }
+
+    /**
+     * @param snapshot Snapshot
+     * @param <T> Snapshot type
+     * @return Shared instance with equal content
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Snapshot> T intern(T snapshot) {
+        return (T) intern(SNAPSHOTS, snapshot.getContentKey(), snapshot);
+    }
+
+    /**
+     * @param value Property value
+     * @return Property value with shared string instances
+     */
+    static Object internValue(Object value) {
+        if (value instanceof String) {
+            return internString((String) value);
+        }
+        if (value instanceof String[]) {
+            String[] strings = (String[]) value;
+            String[] result = new String[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                result[i] = internString(strings[i]);
+            }
+            return result;
+        }
+        return value;
+    }
+
+    private static String internString(String value) {
+        if (value == null || value.length() > MAX_STRING_LENGTH) {
+            return value;
+        }
+        return intern(STRINGS, value, value);
+    }
+
+    private static <K, V> V intern(Map<K, WeakReference<V>>[] stripes, K key, V value) {
+        int hash = key.hashCode();
+        Map<K, WeakReference<V>> stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            WeakReference<V> reference = stripe.get(key);
+            V existing = reference != null ? reference.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            stripe.put(key, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, WeakReference<V>>[] newStripes() {
+        Map<K, WeakReference<V>>[] stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+        return stripes;
+    }
+
+    /**
+     * @return Hash code of the property value, based on array content for arrays
+     */
+    static int valueHashCode(Object value) {
+        return Arrays.deepHashCode(new Object[] {value});
+    }
+
+    /**
+     * @return true if the property values are equal, comparing array content for arrays
+     */
+    static boolean valueEquals(Object value1, Object value2) {
+        return Objects.deepEquals(value1, value2);
+    }
+}
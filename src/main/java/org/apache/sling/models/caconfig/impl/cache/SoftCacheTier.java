@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cold tier of the configuration cache: keeps entries evicted from the strongly referenced {@link CacheStore}
+ * as soft references the JVM may reclaim under memory pressure.
+ */
+final class SoftCacheTier {
+
+    private final ConcurrentMap<CacheKey, EntryReference> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CacheEntry> queue = new ReferenceQueue<>();
+    private final LongAdder collectedCount = new LongAdder();
+
+    void put(CacheEntry entry) {
+        expunge();
+        entry.coldAccessCount.set(0);
+        entries.put(entry.key, new EntryReference(entry, queue));
+    }
+
+    CacheEntry get(CacheKey key) {
+        expunge();
+        EntryReference reference = entries.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    boolean remove(CacheEntry entry) {
+        EntryReference reference = entries.get(entry.key);
+        return reference != null && reference.get() == entry && entries.remove(entry.key, reference);
+    }
+
+    void remove(CacheKey key) {
+        entries.remove(key);
+    }
+
+    List<CacheEntry> entries() {
+        expunge();
+        List<CacheEntry> result = new ArrayList<>(entries.size());
+        for (EntryReference reference : entries.values()) {
+            CacheEntry entry = reference.get();
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * @return Number of entries reclaimed by the garbage collector
+     */
+    long collectedCount() {
+        return collectedCount.sum();
+    }
+
+    private void expunge() {
+        EntryReference reference;
+        while ((reference = (EntryReference) queue.poll()) != null) {
+            if (entries.remove(reference.key, reference)) {
+                collectedCount.increment();
+            }
+        }
+    }
+
+    private static final class EntryReference extends SoftReference<CacheEntry> {
+
+        private final CacheKey key;
+
+        EntryReference(CacheEntry entry, ReferenceQueue<CacheEntry> queue) {
+            super(entry, queue);
+            this.key = entry.key;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.caconfig.annotation.Configuration;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates context-aware configuration annotation proxies backed by a cached configuration snapshot.
+ * Mirrors the value mapping of the caconfig implementation for flat configuration classes; classes with nested
+ * configurations are not supported as they require resource access for resolving the nested configurations.
+ */
+public final class ValueMapConfigurationProxy {
+
+    private static final Pattern METHOD_NAME_MAPPING = Pattern.compile("(\\$\\$)|(\\$)|(__)|(_)");
+
+    private static final ClassValue<Boolean> SUPPORTED_CLASSES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return checkSupported(type);
+        }
+    };
+
+    private ValueMapConfigurationProxy() {
+        // static methods only
+    }
+
+    /**
+     * @param clazz Configuration annotation class
+     * @return true if the class is a context-aware configuration annotation class without nested configurations
+     */
+    public static boolean isSupported(@NotNull Class<?> clazz) {
+        return SUPPORTED_CLASSES.get(clazz);
+    }
+
+    private static boolean checkSupported(Class<?> clazz) {
+        if (!(clazz.isAnnotation() && clazz.isAnnotationPresent(Configuration.class))) {
+            return false;
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            Class<?> type = method.getReturnType();
+            if (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isAnnotation()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param clazz Configuration annotation class
+     * @return Configuration name as derived by the caconfig implementation
+     */
+    public static @NotNull String getConfigurationName(@NotNull Class<?> clazz) {
+        Configuration configuration = clazz.getAnnotation(Configuration.class);
+        if (configuration != null && !configuration.name().trim().isEmpty()) {
+            return configuration.name();
+        }
+        return clazz.getName();
+    }
+
+    /**
+     * @param clazz Configuration annotation class
+     * @param values Configuration snapshot
+     * @param <T> Configuration annotation class
+     * @return Proxy instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull T newInstance(@NotNull Class<T> clazz, @NotNull ValueMap values) {
+        return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[] {clazz}, new Handler(clazz, values));
+    }
+
+    /**
+     * @param methodName Method name of a configuration annotation class
+     * @return Name of the persisted configuration property, as mapped by the configuration resolver
+     */
+    public static @NotNull String getPropertyName(@NotNull String methodName) {
+        Matcher matcher = METHOD_NAME_MAPPING.matcher(methodName);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String replacement = "";
+            if (matcher.group(1) != null) {
+                replacement = "\\$";
+            }
+            if (matcher.group(2) != null) {
+                replacement = "";
+            }
+            if (matcher.group(3) != null) {
+                replacement = "_";
+            }
+            if (matcher.group(4) != null) {
+                replacement = ".";
+            }
+            matcher.appendReplacement(result, replacement);
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static final class Handler implements InvocationHandler {
+
+        private final Class<?> clazz;
+        private final ValueMap values;
+
+        Handler(Class<?> clazz, ValueMap values) {
+            this.clazz = clazz;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String methodName = method.getName();
+            if (args != null && args.length == 1 && methodName.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (args == null || args.length == 0) {
+                switch (methodName) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return clazz.getName() + values;
+                    case "annotationType":
+                        return clazz;
+                    default:
+                        break;
+                }
+            }
+
+            String propName = getPropertyName(methodName);
+            Class<?> targetType = method.getReturnType();
+            Object defaultValue = method.getDefaultValue();
+            if (defaultValue == null) {
+                if (targetType.isArray()) {
+                    defaultValue = Array.newInstance(targetType.getComponentType(), 0);
+                } else if (targetType.isPrimitive()) {
+                    defaultValue = Array.get(Array.newInstance(targetType, 1), 0);
+                }
+            }
+            if (defaultValue != null) {
+                return values.get(propName, defaultValue);
+            }
+            return values.get(propName, targetType);
+        }
+    }
+}
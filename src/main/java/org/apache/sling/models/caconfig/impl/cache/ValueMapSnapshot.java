@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+
+/**
+ * Immutable configuration snapshot of a single configuration.
+ * Values are shared with other snapshots and cache users, so mutable values - arrays, calendars and dates - are
+ * copied on each read.
+ */
+final class ValueMapSnapshot extends ValueMapDecorator implements Snapshot {
+
+    private final Map<String, Object> values;
+    private final ContentKey contentKey;
+    private final boolean hasMutableValues;
+    private volatile ConfigurationView view;
+
+    ValueMapSnapshot(Map<String, Object> values) {
+        super(Collections.unmodifiableMap(values));
+        this.values = values;
+        int hash = 0;
+        boolean mutableValues = false;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            hash += entry.getKey().hashCode() ^ SnapshotInterner.valueHashCode(entry.getValue());
+            mutableValues |= ConfigurationSnapshots.isMutable(entry.getValue());
+        }
+        this.contentKey = new ContentKey(this, hash);
+        this.hasMutableValues = mutableValues;
+    }
+
+    @Override
+    public Object get(Object key) {
+        // the typed getters of the decorator delegate to this method
+        return ConfigurationSnapshots.copyMutable(super.get(key));
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (!hasMutableValues) {
+            return super.entrySet();
+        }
+        Set<Entry<String, Object>> result = new LinkedHashSet<>(values.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(
+                    entry.getKey(), ConfigurationSnapshots.copyMutable(entry.getValue())));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public Collection<Object> values() {
+        if (!hasMutableValues) {
+            return super.values();
+        }
+        Collection<Object> result = new ArrayList<>(values.size());
+        for (Object value : values.values()) {
+            result.add(ConfigurationSnapshots.copyMutable(value));
+        }
+        return Collections.unmodifiableCollection(result);
+    }
+
+    /**
+     * @return Configuration view, created on first access and shared by all users of this snapshot
+     */
+    ConfigurationView getView() {
+        ConfigurationView result = view;
+        if (result == null) {
+            result = new ConfigurationViewImpl(this);
+            view = result;
+        }
+        return result;
+    }
+
+    @Override
+    public ContentKey getContentKey() {
+        return contentKey;
+    }
+
+    @Override
+    public boolean contentEquals(Snapshot snapshot) {
+        if (!(snapshot instanceof ValueMapSnapshot)) {
+            return false;
+        }
+        Map<String, Object> otherValues = ((ValueMapSnapshot) snapshot).values;
+        if (values.size() != otherValues.size()) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!otherValues.containsKey(entry.getKey())
+                    || !SnapshotInterner.valueEquals(entry.getValue(), otherValues.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.lang.reflect.Array;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the retained heap size of cached configuration snapshots.
+ * The estimation is based on property count and value sizes assuming a 64-bit JVM with compressed oops;
+ * it is meant for relative weighting of cache entries, not for exact accounting.
+ */
+final class WeightEstimator {
+
+    static final int OBJECT_OVERHEAD = 16;
+    static final int REFERENCE_SIZE = 4;
+    static final int MAP_OVERHEAD = 64;
+    static final int MAP_ENTRY_OVERHEAD = 32;
+    static final int STRING_OVERHEAD = 40;
+    static final int CALENDAR_SIZE = 400;
+
+    private WeightEstimator() {
+        // static methods only
+    }
+
+    /**
+     * @param value Cached configuration snapshot or value
+     * @return Estimated retained size in bytes
+     */
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING_OVERHEAD + 2L * ((String) value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return OBJECT_OVERHEAD + 8;
+        }
+        if (value instanceof Calendar) {
+            return CALENDAR_SIZE;
+        }
+        if (value instanceof ColumnarValueMapCollection) {
+            return ((ColumnarValueMapCollection) value).estimateWeight();
+        }
+        if (value instanceof Map) {
+            long size = MAP_OVERHEAD;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += MAP_ENTRY_OVERHEAD + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            long size = OBJECT_OVERHEAD + (long) REFERENCE_SIZE * collection.size();
+            for (Object item : collection) {
+                size += estimate(item);
+            }
+            return size;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Class<?> componentType = value.getClass().getComponentType();
+            if (componentType.isPrimitive()) {
+                return OBJECT_OVERHEAD + 8L * length;
+            }
+            long size = OBJECT_OVERHEAD + (long) REFERENCE_SIZE * length;
+            for (int i = 0; i < length; i++) {
+                size += estimate(Array.get(value, i));
+            }
+            return size;
+        }
+        return OBJECT_OVERHEAD * 2;
+    }
+}
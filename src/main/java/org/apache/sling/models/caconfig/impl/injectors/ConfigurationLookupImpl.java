@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.Collection;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.caconfig.lookup.ConfigurationLookup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Configuration lookup bound to the resource detected for a model adaptable.
+ * The context of the resource is resolved on first cached lookup and reused for all further lookups.
+ * Lookups use the cache policy of the injection point the lookup was injected into.
+ */
+final class ConfigurationLookupImpl implements ConfigurationLookup {
+
+    private final ContextAwareConfigurationInjector injector;
+    private final InjectionContext context;
+    private final InjectionPoint injectionPoint;
+
+    ConfigurationLookupImpl(
+            @NotNull ContextAwareConfigurationInjector injector,
+            @NotNull InjectionContext context,
+            @NotNull InjectionPoint injectionPoint) {
+        this.injector = injector;
+        this.context = context;
+        this.injectionPoint = injectionPoint;
+    }
+
+    @Override
+    public @NotNull Resource getResource() {
+        return context.getResource();
+    }
+
+    @Override
+    public <T> @Nullable T get(@NotNull Class<T> type) {
+        return type.cast(injector.getConfiguration(context, null, type, injectionPoint));
+    }
+
+    @Override
+    public <T> @Nullable T get(@NotNull String name, @NotNull Class<T> type) {
+        return type.cast(injector.getConfiguration(context, name, type, injectionPoint));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull Collection<T> getCollection(@NotNull Class<T> type) {
+        return (Collection<T>) injector.getConfigurationCollection(context, null, type, injectionPoint);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull Collection<T> getCollection(@NotNull String name, @NotNull Class<T> type) {
+        return (Collection<T>) injector.getConfigurationCollection(context, name, type, injectionPoint);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationLookup[" + context.getResource().getPath() + "]";
+    }
+}
@@ -20,23 +20,69 @@ package org.apache.sling.models.caconfig.impl.injectors;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.LoginException;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
 import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ExternalResourceChangeListener;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
 import org.apache.sling.caconfig.ConfigurationBuilder;
 import org.apache.sling.caconfig.ConfigurationResolveException;
 import org.apache.sling.caconfig.ConfigurationResolver;
 import org.apache.sling.caconfig.annotation.Configuration;
 import org.apache.sling.caconfig.management.multiplexer.ConfigurationInjectResourceDetectionStrategyMultiplexer;
+import org.apache.sling.caconfig.management.multiplexer.ContextPathStrategyMultiplexer;
+import org.apache.sling.caconfig.spi.ConfigurationInjectResourceDetectionStrategy;
+import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
 import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
+import org.apache.sling.models.caconfig.impl.cache.CacheInvalidator;
+import org.apache.sling.models.caconfig.impl.cache.CacheKey;
+import org.apache.sling.models.caconfig.impl.cache.CacheSettings;
+import org.apache.sling.models.caconfig.impl.cache.CacheStatistics;
+import org.apache.sling.models.caconfig.impl.cache.ChangeStamps;
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationCache;
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationSnapshots;
+import org.apache.sling.models.caconfig.impl.cache.ContextKey;
+import org.apache.sling.models.caconfig.impl.cache.ModelDependencies;
+import org.apache.sling.models.caconfig.impl.cache.ValueMapConfigurationProxy;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionProfile;
+import org.apache.sling.models.caconfig.impl.notification.ConfigurationChangeNotifier;
+import org.apache.sling.models.caconfig.impl.tracing.NoopInjectionTracer;
+import org.apache.sling.models.caconfig.listener.CachedModelTracker;
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeListener;
+import org.apache.sling.models.caconfig.lookup.ConfigurationLookup;
+import org.apache.sling.models.caconfig.tracing.InjectionSpan;
+import org.apache.sling.models.caconfig.tracing.InjectionTracer;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
 import org.apache.sling.models.spi.AcceptsNullName;
 import org.apache.sling.models.spi.DisposalCallbackRegistry;
 import org.apache.sling.models.spi.Injector;
@@ -44,16 +90,199 @@ import org.apache.sling.models.spi.injectorspecific.InjectAnnotationProcessor2;
 import org.apache.sling.models.spi.injectorspecific.StaticInjectAnnotationProcessorFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.osgi.service.component.propertytypes.ServiceRanking;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Component(service = {Injector.class, StaticInjectAnnotationProcessorFactory.class, AcceptsNullName.class})
+@Component(
+        service = {
+            Injector.class,
+            StaticInjectAnnotationProcessorFactory.class,
+            AcceptsNullName.class,
+            ResourceChangeListener.class,
+            ExternalResourceChangeListener.class,
+            CachedModelTracker.class,
+            // for the bundle-internal inventory printer and web console plugin
+            InjectorStatistics.class
+        })
 @ServiceRanking(6000)
+@Designate(ocd = ContextAwareConfigurationInjector.Config.class)
 public class ContextAwareConfigurationInjector
-        implements Injector, StaticInjectAnnotationProcessorFactory, AcceptsNullName {
+        implements Injector,
+                StaticInjectAnnotationProcessorFactory,
+                AcceptsNullName,
+                ResourceChangeListener,
+                ExternalResourceChangeListener,
+                CachedModelTracker,
+                InjectorStatistics {
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Models Context-Aware Configuration Injector",
+            description = "Injects context-aware configurations into Sling Models.")
+    @interface Config {
+
+        @AttributeDefinition(
+                name = "Cache enabled",
+                description = "Enables a shared cache for configurations injected as ValueMap or as configuration "
+                        + "annotation class without nested configurations, into injection points declaring "
+                        + "cache scope SHARED. "
+                        + "Cached configurations are resolved with the service user mapping for subservice '"
+                        + CACHE_SUBSERVICE + "' and shared across requests and resource resolvers, independent "
+                        + "of the permissions of the injecting resource resolver.")
+        boolean cache_enabled() default false;
+
+        @AttributeDefinition(
+                name = "Cache max. entries",
+                description = "Maximum number of strongly referenced cached configurations. "
+                        + "Least recently used entries are evicted.")
+        int cache_maxEntries() default 10000;
+
+        @AttributeDefinition(
+                name = "Cache max. size",
+                description = "Heap budget in KB for all cached configurations, based on the estimated size of "
+                        + "their properties. Least recently used entries are evicted.")
+        long cache_maxSizeKB() default 65536;
+
+        @AttributeDefinition(
+                name = "Context path quota",
+                description = "Optional heap quota in KB for the cached configurations of each context path. "
+                        + "A context path exceeding its quota only evicts its own entries. 0 = no quota.")
+        long cache_contextPathQuotaKB() default 0;
+
+        @AttributeDefinition(
+                name = "Soft references",
+                description = "Keep entries evicted due to the size limits as soft references, which the JVM "
+                        + "reclaims under memory pressure.")
+        boolean cache_softReferences() default true;
+
+        @AttributeDefinition(
+                name = "Promotion threshold",
+                description = "Number of accesses promoting a softly referenced entry back to the strongly "
+                        + "referenced entries.")
+        int cache_promotionThreshold() default 2;
+
+        @AttributeDefinition(
+                name = "Stale-while-revalidate",
+                description = "Keep invalidated entries as stale and serve them while they are re-resolved in "
+                        + "background. The service user mapping for subservice '" + CACHE_SUBSERVICE
+                        + "' needs read access to the configuration and content resources.")
+        boolean cache_staleWhileRevalidate() default false;
+
+        @AttributeDefinition(
+                name = "Max. staleness",
+                description = "Maximum time in seconds a stale entry is served in stale-while-revalidate mode. "
+                        + "Older stale entries are re-resolved synchronously.")
+        int cache_maxStalenessSeconds() default 30;
+
+        @AttributeDefinition(
+                name = "Refresh threads",
+                description = "Number of threads re-resolving stale entries in stale-while-revalidate mode.")
+        int cache_refreshThreads() default 2;
+
+        @AttributeDefinition(
+                name = "Fallback paths",
+                description = "Configuration fallback paths - changes below these paths invalidate the affected "
+                        + "configurations of all contexts.")
+        String[] cache_fallbackPaths() default {"/conf/global", "/apps/conf", "/libs/conf"};
+
+        @AttributeDefinition(
+                name = "Invalidation window",
+                description = "Interval in milliseconds configuration changes are collected before the affected "
+                        + "cached configurations are invalidated in one pass on a background thread, e.g. during "
+                        + "package installations. 0 = invalidate synchronously for each batch of change events.")
+        long cache_invalidationWindowMillis() default 0;
+
+        @AttributeDefinition(
+                name = "Invalidation threshold",
+                description = "Number of changed configuration paths in one invalidation pass above which all "
+                        + "cached configurations are invalidated instead of matching each entry.")
+        int cache_invalidationThreshold() default 1000;
+
+        @AttributeDefinition(
+                name = "Async threads",
+                description = "Number of threads resolving configurations injected as CompletionStage or "
+                        + "CompletableFuture, with a clone of the injecting resource resolver.")
+        int async_threads() default 4;
+
+        @AttributeDefinition(
+                name = "Async queue size",
+                description = "Maximum number of pending asynchronous injections. If the queue is full, "
+                        + "configurations are resolved on the injecting thread.")
+        int async_queueSize() default 1000;
+
+        @AttributeDefinition(
+                name = "Notification debounce",
+                description = "Interval in milliseconds configuration changes are collected before notifying "
+                        + "configuration change listeners.")
+        long notification_debounceMillis() default 500;
+
+        @AttributeDefinition(
+                name = "Diagnostics report interval",
+                description = "Interval in seconds injection problems occurring on the hot path are aggregated "
+                        + "before they are logged as one summary per model element and reason.")
+        int diagnostics_reportIntervalSeconds() default 60;
+
+        @AttributeDefinition(
+                name = "Diagnostics samples",
+                description = "Number of full messages kept as samples per model element, reason and interval.")
+        int diagnostics_samples() default 3;
+
+        @AttributeDefinition(
+                name = "Collect metrics",
+                description = "Collect injection counts, resolution latencies and cache hit ratios per configuration "
+                        + "for the statistics report. The injection time per model class is part of the profile.")
+        boolean metrics_enabled() default false;
+
+        @AttributeDefinition(
+                name = "Profile injections",
+                description = "Aggregate injection time and allocated bytes per model class and member. "
+                        + "Measuring allocations requires a JVM supporting thread allocation accounting.")
+        boolean profile_enabled() default false;
+
+        @AttributeDefinition(
+                name = "Content paths",
+                description = "Observed paths containing context resources - changes below these paths only update "
+                        + "the change-stamp of the changed context path, all other observed paths are treated as "
+                        + "configuration paths.")
+        String[] stamp_contentPaths() default {"/content"};
+
+        @AttributeDefinition(
+                name = "Observed paths",
+                description = "Resource paths observed for configuration changes invalidating the cache and updating "
+                        + "the change-stamps. Add the content paths to also update the change-stamps and notify "
+                        + "listeners on context resource changes, e.g. of sling:configRef - this observes all "
+                        + "content changes.")
+        String[] resource_paths() default {"/conf", "/apps/conf", "/libs/conf"};
+    }
+
+    /**
+     * Subservice of the service resource resolver used to resolve shared cached configurations, refresh them in
+     * background and resolve the context of subscribed listener paths. Cached configurations are shared by all
+     * users, so they must not be resolved with the permissions of the injecting request. Configurations the service
+     * user cannot resolve are resolved uncached with the resource resolver of the request.
+     */
+    static final String CACHE_SUBSERVICE = "configuration-cache";
+
+    private static final String REQUEST_CACHE_ATTRIBUTE =
+            ContextAwareConfigurationInjector.class.getName() + ".requestCache";
+
+    private static final int REFRESH_QUEUE_SIZE = 1000;
+
+    // model class reported in the profile for constructor parameters
+    static final String CONSTRUCTOR_PARAMETER = "(constructor parameter)";
+
+    // maximum number of configuration and model keys tracked in the metrics
+    private static final int MAX_METRICS_KEYS = 5000;
 
     private static final Logger log = LoggerFactory.getLogger(ContextAwareConfigurationInjector.class);
 
@@ -64,6 +293,200 @@ public class ContextAwareConfigurationInjector
     private ConfigurationInjectResourceDetectionStrategyMultiplexer
             configurationInjectResourceDetectionStrategyMultiplexer;
 
+    @Reference
+    private ContextPathStrategyMultiplexer contextPathStrategyMultiplexer;
+
+    @Reference
+    private ResourceResolverFactory resourceResolverFactory;
+
+    @Reference(
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY)
+    private volatile InjectionTracer tracer;
+
+    private ConfigurationCache configurationCache;
+    private CacheInvalidator cacheInvalidator;
+    private ExecutorService refreshExecutor;
+    private ScheduledExecutorService invalidationExecutor;
+    private ExecutorService asyncExecutor;
+    // per declaring class, so model bundles can be uninstalled and lookups take no shared lock
+    private final ClassValue<Map<AnnotatedElement, InjectionPoint>> injectionPoints =
+            new ClassValue<Map<AnnotatedElement, InjectionPoint>>() {
+                @Override
+                protected Map<AnnotatedElement, InjectionPoint> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    private final AtomicLong requestCacheGeneration = new AtomicLong();
+    private final ResourceDetector resourceDetector = new ResourceDetector(System::currentTimeMillis);
+    private final ChangeStamps changeStamps = new ChangeStamps();
+    private final ModelDependencies modelDependencies = new ModelDependencies(changeStamps);
+    private final ConfigurationChangeNotifier changeNotifier =
+            new ConfigurationChangeNotifier(changeStamps, modelDependencies, this::resolveContextKey);
+    private ScheduledExecutorService backgroundExecutor;
+    private InjectionDiagnostics diagnostics;
+    private InjectionMetrics metrics;
+    private InjectionProfile profile;
+    private String[] fallbackPaths;
+    private String[] contentPaths;
+
+    @Activate
+    void activate(Config config) {
+        fallbackPaths = config.cache_fallbackPaths();
+        contentPaths = config.stamp_contentPaths();
+        metrics = config.metrics_enabled() ? new InjectionMetrics(MAX_METRICS_KEYS) : null;
+        profile = config.profile_enabled() ? new InjectionProfile(MAX_METRICS_KEYS) : null;
+        diagnostics = new InjectionDiagnostics(Math.max(0, config.diagnostics_samples()));
+        backgroundExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sling-models-caconfig-background");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long reportInterval = Math.max(1, config.diagnostics_reportIntervalSeconds());
+        backgroundExecutor.scheduleWithFixedDelay(diagnostics::flush, reportInterval, reportInterval, TimeUnit.SECONDS);
+        changeNotifier.start(backgroundExecutor, config.notification_debounceMillis());
+        int asyncThreads = Math.max(1, config.async_threads());
+        ThreadPoolExecutor asyncThreadPool = new ThreadPoolExecutor(
+                asyncThreads,
+                asyncThreads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, config.async_queueSize())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sling-models-caconfig-async");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        asyncThreadPool.allowCoreThreadTimeOut(true);
+        asyncExecutor = asyncThreadPool;
+        if (config.cache_enabled()) {
+            refreshExecutor = new ThreadPoolExecutor(
+                    1,
+                    Math.max(1, config.cache_refreshThreads()),
+                    60,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(REFRESH_QUEUE_SIZE),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "sling-models-caconfig-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            configurationCache = new ConfigurationCache(
+                    new CacheSettings()
+                            .maxWeight(config.cache_maxSizeKB() * 1024)
+                            .maxEntries(config.cache_maxEntries())
+                            .partitionQuota(config.cache_contextPathQuotaKB() * 1024)
+                            .softReferences(config.cache_softReferences())
+                            .promotionThreshold(config.cache_promotionThreshold())
+                            .staleWhileRevalidate(config.cache_staleWhileRevalidate())
+                            .maxStalenessMillis(TimeUnit.SECONDS.toMillis(config.cache_maxStalenessSeconds()))
+                            .evictionListener(this::recordEviction),
+                    this::reload,
+                    refreshExecutor);
+            if (config.cache_invalidationWindowMillis() > 0) {
+                invalidationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "sling-models-caconfig-invalidation");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            cacheInvalidator = new CacheInvalidator(
+                    configurationCache,
+                    config.cache_invalidationThreshold(),
+                    invalidationExecutor,
+                    config.cache_invalidationWindowMillis());
+        }
+    }
+
+    @Deactivate
+    void deactivate() {
+        changeNotifier.stop();
+        backgroundExecutor.shutdownNow();
+        backgroundExecutor = null;
+        diagnostics.flush();
+        asyncExecutor.shutdownNow();
+        asyncExecutor = null;
+        if (invalidationExecutor != null) {
+            invalidationExecutor.shutdownNow();
+            invalidationExecutor = null;
+        }
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+        cacheInvalidator = null;
+        configurationCache = null;
+    }
+
+    @Reference(
+            service = ConfigurationInjectResourceDetectionStrategy.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC)
+    void bindConfigurationInjectResourceDetectionStrategy(
+            ConfigurationInjectResourceDetectionStrategy strategy, Map<String, Object> properties) {
+        resourceDetector.bind(strategy, properties);
+    }
+
+    void unbindConfigurationInjectResourceDetectionStrategy(
+            ConfigurationInjectResourceDetectionStrategy strategy, Map<String, Object> properties) {
+        resourceDetector.unbind(strategy, properties);
+    }
+
+    @Reference(
+            service = ConfigurationChangeListener.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC)
+    void bindConfigurationChangeListener(ConfigurationChangeListener listener, Map<String, Object> properties) {
+        changeNotifier.addListener(listener, properties);
+    }
+
+    void unbindConfigurationChangeListener(ConfigurationChangeListener listener) {
+        changeNotifier.removeListener(listener);
+    }
+
+    @Override
+    public @NotNull InjectionDiagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    private void recordEviction(@NotNull CacheKey key) {
+        if (metrics != null) {
+            metrics.recordEviction(key.getContextKey().getContextPath(), key.getConfigName());
+        }
+    }
+
+    @Override
+    public @Nullable InjectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public @NotNull ResourceDetector getResourceDetector() {
+        return resourceDetector;
+    }
+
+    @Override
+    public @Nullable InjectionProfile getProfile() {
+        return profile;
+    }
+
+    @Override
+    public @Nullable ConfigurationCache getConfigurationCache() {
+        return configurationCache;
+    }
+
+    @Override
+    public @Nullable CacheInvalidator getCacheInvalidator() {
+        return cacheInvalidator;
+    }
+
+    @Override
+    public @Nullable CacheStatistics getCacheStatistics() {
+        ConfigurationCache cache = configurationCache;
+        return cache != null ? cache.getStatistics() : null;
+    }
+
     @Override
     public @NotNull String getName() {
         return "caconfig";
@@ -74,11 +497,78 @@ public class ContextAwareConfigurationInjector
         // check if the element has the expected annotation
         ContextAwareConfiguration annotation = getAnnotation(element);
         if (annotation != null) {
+            // validate fields and methods when the model is registered, constructor parameters on first injection
+            Type declaredType = InjectionPointValidator.getDeclaredType(element);
+            if (declaredType != null) {
+                getInjectionPoint(element, annotation, declaredType);
+            }
             return new ContextAwareConfigurationProcessor(annotation);
         }
         return null;
     }
 
+    /**
+     * Validates the injection point once, and logs an error if it is not supported.
+     * @return true if the injection point is supported
+     */
+    boolean isSupported(
+            @NotNull AnnotatedElement element,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull Type declaredType) {
+        return getInjectionPoint(element, annotation, declaredType).isSupported();
+    }
+
+    /**
+     * Validates the injection point and derives its metadata once, and logs an error if it is not supported.
+     * @return Injection point metadata
+     */
+    private @NotNull InjectionPoint getInjectionPoint(
+            @NotNull AnnotatedElement element,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull Type declaredType) {
+        Map<AnnotatedElement, InjectionPoint> classInjectionPoints =
+                injectionPoints.get(getOwnerClass(element, declaredType));
+        InjectionPoint injectionPoint = classInjectionPoints.get(element);
+        if (injectionPoint != null) {
+            return injectionPoint;
+        }
+        return classInjectionPoints.computeIfAbsent(element, key -> {
+            String unsupportedReason = InjectionPointValidator.validate(annotation, declaredType);
+            if (unsupportedReason != null) {
+                log.error(
+                        "Unsupported @{} injection point {} with type {}: {}",
+                        ContextAwareConfiguration.class.getSimpleName(),
+                        element,
+                        declaredType,
+                        unsupportedReason);
+                return InjectionPoint.unsupported(unsupportedReason);
+            }
+            return InjectionPoint.supported(annotation);
+        });
+    }
+
+    /**
+     * @return Class the injection point metadata is held by, which is unloaded together with the injection point
+     */
+    private static @NotNull Class<?> getOwnerClass(@NotNull AnnotatedElement element, @NotNull Type declaredType) {
+        if (element instanceof Member) {
+            return ((Member) element).getDeclaringClass();
+        }
+        if (element instanceof Parameter) {
+            return ((Parameter) element).getDeclaringExecutable().getDeclaringClass();
+        }
+        // elements synthesized by Sling Models for constructor parameters: use the injected configuration class
+        Type type = declaredType;
+        while (type instanceof ParameterizedType) {
+            Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+            type = typeArguments[typeArguments.length - 1];
+        }
+        while (type instanceof Class && ((Class<?>) type).isArray()) {
+            type = ((Class<?>) type).getComponentType();
+        }
+        return type instanceof Class ? (Class<?>) type : Object.class;
+    }
+
     @Override
     public Object getValue(
             @NotNull Object adaptable,
@@ -94,55 +584,202 @@ public class ContextAwareConfigurationInjector
             return null;
         }
 
+        InjectionPoint injectionPoint = getInjectionPoint(element, annotation, declaredType);
+        if (!injectionPoint.isSupported()) {
+            return null;
+        }
+
         // get resource
         Resource resource = getResource(adaptable);
         if (resource == null) {
-            log.warn("Unable to get resource from {}", adaptable);
+            diagnostics.report(
+                    getLocation(element),
+                    "Unable to get resource from adaptable",
+                    () -> "Unable to get resource from " + adaptable);
             return null;
         }
 
-        // initialize configuration builder
-        ConfigurationBuilder configurationBuilder = configurationResolver.get(resource);
-        if (StringUtils.isNotBlank(annotation.name())) {
-            configurationBuilder = configurationBuilder.name(annotation.name());
+        InjectionProfile.Sample profileStart = profile != null ? InjectionProfile.start() : null;
+        InjectionContext context =
+                new InjectionContext(resource, this::getContextKey, getRequestCache(adaptable, injectionPoint));
+        Type asyncValueType = InjectionPointValidator.getAsyncValueType(declaredType);
+        Object value;
+        if (annotation.stamp()) {
+            value = getStamp(context);
+        } else if (asyncValueType != null) {
+            value = getConfigurationValueAsync(context, annotation, injectionPoint, asyncValueType);
+        } else {
+            value = getConfigurationValue(context, annotation, injectionPoint, declaredType);
         }
+        if (profileStart != null) {
+            recordProfile(element, declaredType, profileStart);
+        }
+        if (value != null) {
+            trackCachedModel(
+                    adaptable, element, context, annotation, asyncValueType != null ? asyncValueType : declaredType);
+        }
+        return value;
+    }
+
+    /**
+     * Configurations served from the shared cache are completed on the injecting thread. All others are resolved
+     * on the async executor with a clone of the adaptable's resource resolver, as the resource resolver itself must
+     * not be used concurrently and may already be closed when the configuration is resolved. The clone has the same
+     * permissions and is closed after resolving. If the resource resolver cannot be cloned or the executor is
+     * saturated, the configuration is resolved on the injecting thread.
+     * @param valueType Type argument of the declared CompletionStage or CompletableFuture
+     * @return Future completed with the configuration
+     */
+    private @NotNull CompletableFuture<Object> getConfigurationValueAsync(
+            @NotNull InjectionContext context,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull InjectionPoint injectionPoint,
+            @NotNull Type valueType) {
+        if (isCached(context, annotation, injectionPoint, valueType)) {
+            return CompletableFuture.completedFuture(
+                    getConfigurationValue(context, annotation, injectionPoint, valueType));
+        }
+        ResourceResolver asyncResourceResolver = cloneResourceResolver(context.getResource());
+        if (asyncResourceResolver == null) {
+            return CompletableFuture.completedFuture(
+                    getConfigurationValue(context, annotation, injectionPoint, valueType));
+        }
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> resolveAsync(asyncResourceResolver, context, annotation, injectionPoint, valueType),
+                    asyncExecutor);
+        } catch (RejectedExecutionException ex) {
+            asyncResourceResolver.close();
+            log.debug("Async executor saturated, resolve {} synchronously.", valueType.getTypeName());
+            return CompletableFuture.completedFuture(
+                    getConfigurationValue(context, annotation, injectionPoint, valueType));
+        }
+    }
+
+    /**
+     * @return true if the configuration is served from the shared cache
+     */
+    private boolean isCached(
+            @NotNull InjectionContext context,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull InjectionPoint injectionPoint,
+            @NotNull Type valueType) {
+        ConfigurationCache cache = configurationCache;
+        if (cache == null || injectionPoint.getCacheScope() != CacheScope.SHARED) {
+            return false;
+        }
+        Class<?> clazz;
+        boolean collection;
+        if (valueType instanceof Class) {
+            clazz = (Class<?>) valueType;
+            collection = clazz.isArray();
+            if (collection) {
+                clazz = clazz.getComponentType();
+            }
+        } else {
+            clazz = (Class<?>) ((ParameterizedType) valueType).getActualTypeArguments()[0];
+            collection = true;
+        }
+        String cacheConfigName = getCacheConfigName(StringUtils.defaultIfBlank(annotation.name(), null), clazz);
+        return cacheConfigName != null
+                && cache.contains(
+                        new CacheKey(context.getContextKey(), cacheConfigName, collection),
+                        injectionPoint.getMaxAgeMillis());
+    }
 
+    /**
+     * @return Clone of the resource's resource resolver or null if it cannot be cloned
+     */
+    private @Nullable ResourceResolver cloneResourceResolver(@NotNull Resource resource) {
+        try {
+            return resource.getResourceResolver().clone(null);
+        } catch (LoginException | UnsupportedOperationException ex) {
+            log.debug("Unable to clone resource resolver, resolve synchronously: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private @Nullable Object resolveAsync(
+            @NotNull ResourceResolver asyncResourceResolver,
+            @NotNull InjectionContext context,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull InjectionPoint injectionPoint,
+            @NotNull Type valueType) {
+        try (ResourceResolver resourceResolver = asyncResourceResolver) {
+            Resource resource =
+                    resourceResolver.getResource(context.getResource().getPath());
+            if (resource == null) {
+                return null;
+            }
+            return getConfigurationValue(context.withResource(resource), annotation, injectionPoint, valueType);
+        }
+    }
+
+    private @Nullable Object getConfigurationValue(
+            @NotNull InjectionContext context,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull InjectionPoint injectionPoint,
+            @NotNull Type declaredType) {
+        if (declaredType.equals(ConfigurationLookup.class)) {
+            return new ConfigurationLookupImpl(this, context, injectionPoint);
+        }
+        String name = StringUtils.defaultIfBlank(annotation.name(), null);
         // detect from declared type if a single configuration or configuration collection is requested and return the
         // configuration
         if (declaredType instanceof Class) {
             Class<?> clazz = (Class<?>) declaredType;
             if (clazz.isArray()) {
-                Collection<?> result = getConfigurationCollection(configurationBuilder, clazz.getComponentType());
-                Object array = Array.newInstance(clazz.getComponentType(), result.size());
-                Iterator<?> resultIterator = result.iterator();
-                int i = 0;
-                while (resultIterator.hasNext()) {
-                    Array.set(array, i++, resultIterator.next());
+                Collection<?> result =
+                        getConfigurationCollection(context, name, clazz.getComponentType(), injectionPoint);
+                try (InjectionSpan span = startSpan(InjectionTracer.STAGE_SHAPE, clazz)) {
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE, result.size());
+                    Object array = Array.newInstance(clazz.getComponentType(), result.size());
+                    Iterator<?> resultIterator = result.iterator();
+                    int i = 0;
+                    while (resultIterator.hasNext()) {
+                        Array.set(array, i++, resultIterator.next());
+                    }
+                    return array;
                 }
-                return array;
             } else {
-                return getConfiguration(configurationBuilder, clazz);
+                return getConfiguration(context, name, clazz, injectionPoint);
             }
-        } else if (declaredType instanceof ParameterizedType) {
+        } else {
+            // List or Collection with one type argument, as ensured by the validation
             ParameterizedType parameterizedType = (ParameterizedType) declaredType;
-            if (parameterizedType.getActualTypeArguments().length != 1) {
-                return null;
-            }
             Class<?> collectionType = (Class<?>) parameterizedType.getRawType();
-            if (!(collectionType.equals(Collection.class) || collectionType.equals(List.class))) {
-                return null;
-            }
             Class<?> clazz = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-            Collection<?> result = getConfigurationCollection(configurationBuilder, clazz);
+            Collection<?> result = getConfigurationCollection(context, name, clazz, injectionPoint);
             if (collectionType.equals(List.class)) {
-                return new ArrayList<>(result);
+                try (InjectionSpan span = startSpan(InjectionTracer.STAGE_SHAPE, collectionType)) {
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE, result.size());
+                    return new ArrayList<>(result);
+                }
             } else {
                 return result;
             }
+        }
+    }
+
+    /**
+     * Constructor parameters do not expose the model class they belong to, they are profiled with their type.
+     */
+    private void recordProfile(
+            @NotNull AnnotatedElement element, @NotNull Type declaredType, @NotNull InjectionProfile.Sample start) {
+        if (element instanceof Member) {
+            Member member = (Member) element;
+            profile.record(member.getDeclaringClass().getName(), member.getName(), start);
         } else {
-            log.warn("Cannot handle type {}", declaredType);
-            return null;
+            profile.record(CONSTRUCTOR_PARAMETER, declaredType.getTypeName(), start);
+        }
+    }
+
+    private static @NotNull String getLocation(@NotNull AnnotatedElement element) {
+        if (element instanceof Member) {
+            Member member = (Member) element;
+            return member.getDeclaringClass().getName() + "#" + member.getName();
         }
+        return element.toString();
     }
 
     private @Nullable ContextAwareConfiguration getAnnotation(AnnotatedElement element) {
@@ -155,46 +792,453 @@ public class ContextAwareConfigurationInjector
         }
         if (adaptable instanceof SlingHttpServletRequest) {
             SlingHttpServletRequest request = (SlingHttpServletRequest) adaptable;
-            Resource resource = configurationInjectResourceDetectionStrategyMultiplexer.detectResource(request);
-            if (resource == null) {
-                resource = request.getResource();
+            Resource resource;
+            try (InjectionSpan span = getTracer().startSpan(InjectionTracer.STAGE_DETECT_RESOURCE)) {
+                resource = resourceDetector.detectResource(
+                        request, configurationInjectResourceDetectionStrategyMultiplexer);
+                if (resource == null) {
+                    resource = request.getResource();
+                }
+                if (resource != null) {
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_RESOURCE_PATH, resource.getPath());
+                }
             }
             return resource;
         }
         return null;
     }
 
-    private @Nullable Object getConfiguration(
-            @NotNull ConfigurationBuilder configurationBuilder, @NotNull Class<?> clazz) {
+    /**
+     * Records configurations injected into fields or methods of models with {@code @Model(cache = true)}.
+     * Constructor parameters do not expose the model class they belong to.
+     */
+    private void trackCachedModel(
+            @NotNull Object adaptable,
+            @NotNull AnnotatedElement element,
+            @NotNull InjectionContext context,
+            @NotNull ContextAwareConfiguration annotation,
+            @NotNull Type declaredType) {
+        if (!(element instanceof Member)) {
+            return;
+        }
+        Class<?> modelClass = ((Member) element).getDeclaringClass();
+        Model model = modelClass.getAnnotation(Model.class);
+        if (model == null || !model.cache()) {
+            return;
+        }
+        modelDependencies.record(
+                adaptable, modelClass, context.getContextKey(), getConfigName(annotation, declaredType));
+    }
+
+    private static @Nullable String getConfigName(
+            @NotNull ContextAwareConfiguration annotation, @NotNull Type declaredType) {
+        if (StringUtils.isNotBlank(annotation.name())) {
+            return annotation.name();
+        }
+        Class<?> clazz = null;
+        if (declaredType instanceof Class) {
+            clazz = (Class<?>) declaredType;
+            if (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+        } else if (declaredType instanceof ParameterizedType) {
+            Type[] typeArguments = ((ParameterizedType) declaredType).getActualTypeArguments();
+            if (typeArguments.length == 1 && typeArguments[0] instanceof Class) {
+                clazz = (Class<?>) typeArguments[0];
+            }
+        }
+        if (clazz != null && clazz.isAnnotation() && clazz.isAnnotationPresent(Configuration.class)) {
+            return ValueMapConfigurationProxy.getConfigurationName(clazz);
+        }
+        return null;
+    }
+
+    private @NotNull Long getStamp(@NotNull InjectionContext context) {
+        return changeStamps.getStamp(context.getContextKey());
+    }
+
+    @NotNull
+    ContextKey getContextKey(@NotNull Resource resource) {
+        return ContextKey.of(contextPathStrategyMultiplexer.findContextResources(resource));
+    }
+
+    /**
+     * The configuration builder resolves lazily, so the span has to include the terminal {@code as*} call.
+     */
+    private @NotNull InjectionSpan startResolveSpan(
+            @NotNull Resource resource, @Nullable String name, @NotNull Class<?> targetType) {
+        InjectionSpan span = startSpan(InjectionTracer.STAGE_RESOLVE, targetType);
+        span.setAttribute(InjectionTracer.ATTRIBUTE_RESOURCE_PATH, resource.getPath());
+        if (name != null) {
+            span.setAttribute(InjectionTracer.ATTRIBUTE_CONFIG_NAME, name);
+        }
+        return span;
+    }
+
+    private @NotNull ConfigurationBuilder getConfigurationBuilder(@NotNull Resource resource, @Nullable String name) {
+        ConfigurationBuilder configurationBuilder = configurationResolver.get(resource);
+        return name != null ? configurationBuilder.name(name) : configurationBuilder;
+    }
+
+    /**
+     * @param context Injection context with the resource to resolve the configuration for
+     * @param name Configuration name, or null to derive it from the configuration class
+     * @param clazz Configuration class
+     * @param injectionPoint Injection point defining the cache policy
+     * @return Configuration
+     */
+    @Nullable
+    Object getConfiguration(
+            @NotNull InjectionContext context,
+            @Nullable String name,
+            @NotNull Class<?> clazz,
+            @NotNull InjectionPoint injectionPoint) {
         try {
-            if (clazz.equals(ValueMap.class)) {
-                return configurationBuilder.asValueMap();
+            String cacheConfigName = getCacheConfigName(name, clazz);
+            ValueMap values = cacheConfigName != null
+                    ? (ValueMap) getCachedSnapshot(context, cacheConfigName, false, injectionPoint)
+                    : null;
+            if (values != null) {
+                try (InjectionSpan span = startSpan(InjectionTracer.STAGE_MATERIALIZE, clazz)) {
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_CONFIG_NAME, cacheConfigName);
+                    return toConfiguration(values, clazz);
+                }
             }
-            if (isContextAwareConfigAnnotationClass(clazz)) {
-                return configurationBuilder.as(clazz);
+            long start = metrics != null ? System.nanoTime() : 0;
+            try {
+                try (InjectionSpan span = startResolveSpan(context.getResource(), name, clazz)) {
+                    ConfigurationBuilder configurationBuilder = getConfigurationBuilder(context.getResource(), name);
+                    if (clazz.equals(ValueMap.class)) {
+                        return configurationBuilder.asValueMap();
+                    }
+                    if (clazz.equals(ConfigurationView.class)) {
+                        return ConfigurationSnapshots.view(configurationBuilder.asValueMap());
+                    }
+                    if (isContextAwareConfigAnnotationClass(clazz)) {
+                        return configurationBuilder.as(clazz);
+                    }
+                    return configurationBuilder.asAdaptable(clazz);
+                }
+            } finally {
+                if (metrics != null) {
+                    metrics.recordUncached(getMetricsConfigName(name, clazz), System.nanoTime() - start);
+                }
             }
-            return configurationBuilder.asAdaptable(clazz);
         } catch (ConfigurationResolveException ex) {
             throw new ConfigurationResolveException("Class " + clazz.getName() + ": " + ex.getMessage(), ex);
         }
     }
 
-    private @NotNull Collection<?> getConfigurationCollection(
-            @NotNull ConfigurationBuilder configurationBuilder, @NotNull Class<?> clazz) {
+    /**
+     * @param context Injection context with the resource to resolve the configuration collection for
+     * @param name Configuration name, or null to derive it from the configuration class
+     * @param clazz Configuration class
+     * @param injectionPoint Injection point defining the cache policy
+     * @return Configuration collection
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    Collection<?> getConfigurationCollection(
+            @NotNull InjectionContext context,
+            @Nullable String name,
+            @NotNull Class<?> clazz,
+            @NotNull InjectionPoint injectionPoint) {
         try {
-            if (clazz.equals(ValueMap.class)) {
-                return configurationBuilder.asValueMapCollection();
+            String cacheConfigName = getCacheConfigName(name, clazz);
+            List<ValueMap> values = cacheConfigName != null
+                    ? (List<ValueMap>) getCachedSnapshot(context, cacheConfigName, true, injectionPoint)
+                    : null;
+            if (values != null) {
+                try (InjectionSpan span = startSpan(InjectionTracer.STAGE_MATERIALIZE, clazz)) {
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_CONFIG_NAME, cacheConfigName);
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE, values.size());
+                    if (clazz.equals(ConfigurationView.class)) {
+                        return ConfigurationSnapshots.views(values);
+                    }
+                    List<Object> result = new ArrayList<>(values.size());
+                    for (ValueMap item : values) {
+                        result.add(toConfiguration(item, clazz));
+                    }
+                    return result;
+                }
             }
-            if (isContextAwareConfigAnnotationClass(clazz)) {
-                return configurationBuilder.asCollection(clazz);
+            long start = metrics != null ? System.nanoTime() : 0;
+            try {
+                try (InjectionSpan span = startResolveSpan(context.getResource(), name, clazz)) {
+                    ConfigurationBuilder configurationBuilder = getConfigurationBuilder(context.getResource(), name);
+                    Collection<?> result;
+                    if (clazz.equals(ValueMap.class)) {
+                        result = configurationBuilder.asValueMapCollection();
+                    } else if (clazz.equals(ConfigurationView.class)) {
+                        result = ConfigurationSnapshots.views(configurationBuilder.asValueMapCollection());
+                    } else if (isContextAwareConfigAnnotationClass(clazz)) {
+                        result = configurationBuilder.asCollection(clazz);
+                    } else {
+                        result = configurationBuilder.asAdaptableCollection(clazz);
+                    }
+                    span.setAttribute(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE, result.size());
+                    return result;
+                }
+            } finally {
+                if (metrics != null) {
+                    metrics.recordUncached(getMetricsConfigName(name, clazz), System.nanoTime() - start);
+                }
             }
-            return configurationBuilder.asAdaptableCollection(clazz);
         } catch (ConfigurationResolveException ex) {
             throw new ConfigurationResolveException("Class " + clazz.getName() + ": " + ex.getMessage(), ex);
         }
     }
 
+    private @NotNull String getMetricsConfigName(@Nullable String name, @NotNull Class<?> clazz) {
+        if (name != null) {
+            return name;
+        }
+        if (isContextAwareConfigAnnotationClass(clazz)) {
+            return ValueMapConfigurationProxy.getConfigurationName(clazz);
+        }
+        return clazz.getName();
+    }
+
+    /**
+     * Checks if the configuration can be cached, which is only the case for configurations injected as ValueMap,
+     * as ConfigurationView or as annotation class without nested configurations.
+     * @return Configuration name used as cache key or null if the configuration is not cacheable
+     */
+    private @Nullable String getCacheConfigName(@Nullable String name, @NotNull Class<?> clazz) {
+        if (clazz.equals(ValueMap.class) || clazz.equals(ConfigurationView.class)) {
+            return name;
+        }
+        if (ValueMapConfigurationProxy.isSupported(clazz)) {
+            return name != null ? name : ValueMapConfigurationProxy.getConfigurationName(clazz);
+        }
+        return null;
+    }
+
+    /**
+     * @return Configuration snapshot from the cache of the injection point's cache scope, or null if the
+     *     configuration is not cached for the injection point or the service user cannot resolve it
+     */
+    private @Nullable Object getCachedSnapshot(
+            @NotNull InjectionContext context,
+            @NotNull String configName,
+            boolean collection,
+            @NotNull InjectionPoint injectionPoint) {
+        ConfigurationCache cache = null;
+        Map<CacheKey, Object> requestCache = null;
+        switch (injectionPoint.getCacheScope()) {
+            case SHARED:
+                cache = configurationCache;
+                if (cache == null) {
+                    return null;
+                }
+                break;
+            case REQUEST:
+                requestCache = context.getRequestCache();
+                if (requestCache == null) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+        }
+        Resource resource = context.getResource();
+        try (InjectionSpan span = getTracer().startSpan(InjectionTracer.STAGE_CACHE)) {
+            span.setAttribute(InjectionTracer.ATTRIBUTE_CONFIG_NAME, configName);
+            long start = metrics != null ? System.nanoTime() : 0;
+            ContextKey contextKey = context.getContextKey();
+            CacheKey key = new CacheKey(contextKey, configName, collection);
+            boolean[] resolved = new boolean[1];
+            // the shared cache serves all users, so it is filled with the permissions of the service user
+            boolean shared = cache != null;
+            Supplier<Object> loader = () -> {
+                resolved[0] = true;
+                return shared ? reload(key, resource.getPath()) : resolveSnapshot(resource, configName, collection);
+            };
+            Object value = cache != null
+                    ? cache.get(key, resource.getPath(), injectionPoint.getMaxAgeMillis(), loader)
+                    : getRequestCached(requestCache, key, loader);
+            if (metrics != null) {
+                metrics.recordCached(contextKey.getContextPath(), configName, !resolved[0], System.nanoTime() - start);
+            }
+            span.setAttribute(InjectionTracer.ATTRIBUTE_CACHE_HIT, !resolved[0]);
+            return value;
+        }
+    }
+
+    /**
+     * Resolves outside of the map's locks, so concurrent injections in the same request may resolve the same
+     * configuration twice, but the first result wins.
+     */
+    private static @Nullable Object getRequestCached(
+            @NotNull Map<CacheKey, Object> requestCache, @NotNull CacheKey key, @NotNull Supplier<Object> loader) {
+        Object value = requestCache.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        Object existing = requestCache.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Configurations with cache scope REQUEST are cached in an attribute of the request, so the cache is discarded
+     * with the request. A configuration change starts a new generation, which replaces the cache of requests in
+     * flight. Other adaptables than requests resolve uncached.
+     */
+    private @Nullable Map<CacheKey, Object> getRequestCache(
+            @NotNull Object adaptable, @NotNull InjectionPoint injectionPoint) {
+        if (injectionPoint.getCacheScope() != CacheScope.REQUEST || !(adaptable instanceof SlingHttpServletRequest)) {
+            return null;
+        }
+        SlingHttpServletRequest request = (SlingHttpServletRequest) adaptable;
+        long generation = requestCacheGeneration.get();
+        Object attribute = request.getAttribute(REQUEST_CACHE_ATTRIBUTE);
+        if (attribute instanceof RequestCache && ((RequestCache) attribute).generation == generation) {
+            return ((RequestCache) attribute).values;
+        }
+        RequestCache requestCache = new RequestCache(generation);
+        request.setAttribute(REQUEST_CACHE_ATTRIBUTE, requestCache);
+        return requestCache.values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull Object resolveSnapshot(
+            @NotNull Resource resource, @NotNull String configName, boolean collection) {
+        Object values;
+        try (InjectionSpan span = startResolveSpan(resource, configName, ValueMap.class)) {
+            ConfigurationBuilder configurationBuilder = getConfigurationBuilder(resource, configName);
+            if (collection) {
+                Collection<ValueMap> items = configurationBuilder.asValueMapCollection();
+                span.setAttribute(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE, items.size());
+                values = items;
+            } else {
+                values = configurationBuilder.asValueMap();
+            }
+        }
+        try (InjectionSpan span = startSpan(InjectionTracer.STAGE_MATERIALIZE, ValueMap.class)) {
+            span.setAttribute(InjectionTracer.ATTRIBUTE_CONFIG_NAME, configName);
+            return collection
+                    ? ConfigurationSnapshots.snapshot((Collection<ValueMap>) values)
+                    : ConfigurationSnapshots.snapshot((ValueMap) values);
+        }
+    }
+
+    private @Nullable Object reload(@NotNull CacheKey key, @NotNull String resourcePath) {
+        try (ResourceResolver resourceResolver = getServiceResourceResolver()) {
+            Resource resource = resourceResolver.getResource(resourcePath);
+            if (resource == null) {
+                return null;
+            }
+            return resolveSnapshot(resource, key.getConfigName(), key.isCollection());
+        } catch (LoginException ex) {
+            diagnostics.report("Configuration cache", "Unable to get service resource resolver", ex::getMessage);
+            return null;
+        }
+    }
+
+    private @Nullable ContextKey resolveContextKey(@NotNull String contextPath) {
+        try (ResourceResolver resourceResolver = getServiceResourceResolver()) {
+            Resource resource = resourceResolver.getResource(contextPath);
+            if (resource == null) {
+                return null;
+            }
+            return getContextKey(resource);
+        } catch (LoginException ex) {
+            diagnostics.report(
+                    "Configuration change notification",
+                    "Unable to get service resource resolver",
+                    () -> "Unable to resolve context of " + contextPath + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private @NotNull InjectionTracer getTracer() {
+        InjectionTracer currentTracer = tracer;
+        return currentTracer != null ? currentTracer : NoopInjectionTracer.INSTANCE;
+    }
+
+    private @NotNull InjectionSpan startSpan(@NotNull String stage, @NotNull Class<?> targetType) {
+        InjectionSpan span = getTracer().startSpan(stage);
+        span.setAttribute(InjectionTracer.ATTRIBUTE_TARGET_TYPE, targetType.getName());
+        return span;
+    }
+
+    private @NotNull ResourceResolver getServiceResourceResolver() throws LoginException {
+        return resourceResolverFactory.getServiceResourceResolver(
+                Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, CACHE_SUBSERVICE));
+    }
+
+    private @NotNull Object toConfiguration(@NotNull ValueMap values, @NotNull Class<?> clazz) {
+        if (clazz.equals(ValueMap.class)) {
+            return values;
+        }
+        if (clazz.equals(ConfigurationView.class)) {
+            return ConfigurationSnapshots.view(values);
+        }
+        return ValueMapConfigurationProxy.newInstance(clazz, values);
+    }
+
     private boolean isContextAwareConfigAnnotationClass(Class<?> clazz) {
         return clazz.isAnnotation() && clazz.isAnnotationPresent(Configuration.class);
     }
+
+    @Override
+    public boolean isStale(@NotNull Object adaptable, @NotNull Class<?> modelClass) {
+        return modelDependencies.isStale(adaptable, modelClass);
+    }
+
+    @Override
+    public @NotNull Set<String> getConfigNames(@NotNull Class<?> modelClass) {
+        return modelDependencies.getConfigNames(modelClass);
+    }
+
+    @Override
+    public void onChange(@NotNull List<ResourceChange> changes) {
+        // cache invalidation is coalesced per batch of changes, or across batches within the invalidation window
+        List<String> changedConfigurationPaths = new ArrayList<>();
+        List<String> changedFallbackPaths = new ArrayList<>();
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            if (isBelow(path, contentPaths)) {
+                changeStamps.contextChanged(path);
+                changeNotifier.contextChanged(path);
+            } else if (isBelow(path, fallbackPaths)) {
+                changeStamps.fallbackConfigurationChanged();
+                changeNotifier.configurationChanged(path, true);
+                changedFallbackPaths.add(path);
+            } else {
+                changeStamps.configurationChanged(path);
+                changeNotifier.configurationChanged(path, false);
+                changedConfigurationPaths.add(path);
+            }
+        }
+        // context changes may change the configuration reference as well, so every change starts a new generation
+        requestCacheGeneration.incrementAndGet();
+        CacheInvalidator invalidator = cacheInvalidator;
+        if (invalidator != null) {
+            invalidator.invalidate(changedConfigurationPaths, changedFallbackPaths);
+        }
+    }
+
+    private static boolean isBelow(@NotNull String path, @NotNull String[] parentPaths) {
+        for (String parentPath : parentPaths) {
+            if (StringUtils.equals(path, parentPath) || StringUtils.startsWith(path, parentPath + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RequestCache {
+
+        private final long generation;
+        private final Map<CacheKey, Object> values = new ConcurrentHashMap<>();
+
+        RequestCache(long generation) {
+            this.generation = generation;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.caconfig.impl.cache.CacheKey;
+import org.apache.sling.models.caconfig.impl.cache.ContextKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * State shared by all configurations resolved for one injection: the resource, its context - resolved at most
+ * once, on first access - and the request cache of the request the model is adapted from.
+ */
+final class InjectionContext {
+
+    private final Resource resource;
+    private final Function<Resource, ContextKey> contextKeyResolver;
+    private final Map<CacheKey, Object> requestCache;
+    private ContextKey contextKey;
+
+    /**
+     * @param resource Resource to resolve the configurations for
+     * @param contextKeyResolver Resolves the context of the resource
+     * @param requestCache Cache for configurations with cache scope REQUEST, or null if there is no request
+     */
+    InjectionContext(
+            @NotNull Resource resource,
+            @NotNull Function<Resource, ContextKey> contextKeyResolver,
+            @Nullable Map<CacheKey, Object> requestCache) {
+        this.resource = resource;
+        this.contextKeyResolver = contextKeyResolver;
+        this.requestCache = requestCache;
+    }
+
+    @NotNull
+    Resource getResource() {
+        return resource;
+    }
+
+    @NotNull
+    ContextKey getContextKey() {
+        if (contextKey == null) {
+            contextKey = contextKeyResolver.apply(resource);
+        }
+        return contextKey;
+    }
+
+    @Nullable
+    Map<CacheKey, Object> getRequestCache() {
+        return requestCache;
+    }
+
+    /**
+     * @param otherResource Same resource, read with another resource resolver
+     * @return Context for the other resource, sharing the context and the request cache
+     */
+    @NotNull
+    InjectionContext withResource(@NotNull Resource otherResource) {
+        InjectionContext result = new InjectionContext(otherResource, contextKeyResolver, requestCache);
+        result.contextKey = contextKey;
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates injection problems occurring on the hot path instead of logging each occurrence.
+ * Occurrences are counted per location (model class and element) and reason in lock-free counters, and only the
+ * first few messages of each flush interval are formatted and kept as samples. {@link #flush()} logs one
+ * summary per location and reason.
+ */
+final class InjectionDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(InjectionDiagnostics.class);
+
+    private final int maxSamples;
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    InjectionDiagnostics(int maxSamples) {
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * @param location Model class and element, or background task
+     * @param reason Short reason used for aggregation
+     * @param message Full message, only formatted if sampled
+     */
+    void report(@NotNull String location, @NotNull String reason, @NotNull Supplier<String> message) {
+        Counter counter = counters.computeIfAbsent(new Key(location, reason), key -> new Counter(maxSamples));
+        counter.count.increment();
+        counter.total.increment();
+        int sample = counter.reserveSample();
+        if (sample >= 0) {
+            counter.samples.set(sample, message.get());
+        }
+    }
+
+    /**
+     * Logs and resets the occurrences since the last flush.
+     */
+    void flush() {
+        for (Map.Entry<Key, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long count = counter.count.sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            List<String> samples = counter.drainSamples();
+            log.warn(
+                    "{} at {}: {} occurrence(s) since last report, samples: {}",
+                    entry.getKey().reason,
+                    entry.getKey().location,
+                    count,
+                    samples);
+        }
+    }
+
+    /**
+     * @return Total occurrences per location and reason since activation
+     */
+    @NotNull
+    List<Summary> getSummaries() {
+        List<Summary> result = new ArrayList<>();
+        for (Map.Entry<Key, Counter> entry : counters.entrySet()) {
+            result.add(new Summary(
+                    entry.getKey().location,
+                    entry.getKey().reason,
+                    entry.getValue().total.sum(),
+                    entry.getValue().getSamples()));
+        }
+        return result;
+    }
+
+    static final class Summary {
+
+        private final String location;
+        private final String reason;
+        private final long count;
+        private final List<String> samples;
+
+        Summary(String location, String reason, long count, List<String> samples) {
+            this.location = location;
+            this.reason = reason;
+            this.count = count;
+            this.samples = samples;
+        }
+
+        String getLocation() {
+            return location;
+        }
+
+        String getReason() {
+            return reason;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        List<String> getSamples() {
+            return samples;
+        }
+    }
+
+    private static final class Key {
+
+        private final String location;
+        private final String reason;
+
+        Key(String location, String reason) {
+            this.location = location;
+            this.reason = reason;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * location.hashCode() + reason.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(location, other.location) && Objects.equals(reason, other.reason);
+        }
+    }
+
+    private static final class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicInteger sampleCount = new AtomicInteger();
+        private final AtomicReferenceArray<String> samples;
+
+        Counter(int maxSamples) {
+            this.samples = new AtomicReferenceArray<>(maxSamples);
+        }
+
+        List<String> getSamples() {
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < samples.length(); i++) {
+                String sample = samples.get(i);
+                if (sample != null) {
+                    result.add(sample);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * @return Index of the reserved sample slot, or -1 if all slots of the current interval are taken
+         */
+        int reserveSample() {
+            while (true) {
+                int sample = sampleCount.get();
+                if (sample >= samples.length()) {
+                    return -1;
+                }
+                if (sampleCount.compareAndSet(sample, sample + 1)) {
+                    return sample;
+                }
+            }
+        }
+
+        List<String> drainSamples() {
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < samples.length(); i++) {
+                String sample = samples.getAndSet(i, null);
+                if (sample != null) {
+                    result.add(sample);
+                }
+            }
+            sampleCount.set(0);
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.models.caconfig.annotations.CacheScope;
+import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Metadata of a {@link ContextAwareConfiguration} injection point, derived once from its annotation and declared
+ * type when it is validated.
+ */
+final class InjectionPoint {
+
+    private final String unsupportedReason;
+    private final CacheScope cacheScope;
+    private final long maxAgeMillis;
+
+    private InjectionPoint(@Nullable String unsupportedReason, @NotNull CacheScope cacheScope, long maxAgeMillis) {
+        this.unsupportedReason = unsupportedReason;
+        this.cacheScope = cacheScope;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @param annotation Annotation
+     * @return Supported injection point with the cache policy of the annotation
+     */
+    static @NotNull InjectionPoint supported(@NotNull ContextAwareConfiguration annotation) {
+        long maxAgeMillis =
+                annotation.maxAgeSeconds() >= 0 ? TimeUnit.SECONDS.toMillis(annotation.maxAgeSeconds()) : -1;
+        return new InjectionPoint(null, annotation.cacheScope(), maxAgeMillis);
+    }
+
+    /**
+     * @param reason Reason why the injection point is not supported
+     * @return Unsupported injection point
+     */
+    static @NotNull InjectionPoint unsupported(@NotNull String reason) {
+        return new InjectionPoint(reason, CacheScope.NONE, -1);
+    }
+
+    /**
+     * @return true if the injection point is supported
+     */
+    boolean isSupported() {
+        return unsupportedReason == null;
+    }
+
+    /**
+     * @return Cache scope
+     */
+    @NotNull
+    CacheScope getCacheScope() {
+        return cacheScope;
+    }
+
+    /**
+     * @return Maximum age of configurations served from the shared cache, or -1 for no limit
+     */
+    long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.caconfig.annotation.Configuration;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
+import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
+import org.apache.sling.models.caconfig.lookup.ConfigurationLookup;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Validates the declared types of {@link ContextAwareConfiguration} injection points.
+ */
+final class InjectionPointValidator {
+
+    private InjectionPointValidator() {
+        // static methods only
+    }
+
+    /**
+     * @param element Field or method
+     * @return Declared type or null if the element type is not known before injection (e.g. constructor parameters)
+     */
+    static @Nullable Type getDeclaredType(@NotNull AnnotatedElement element) {
+        if (element instanceof Field) {
+            return ((Field) element).getGenericType();
+        }
+        if (element instanceof Method) {
+            return ((Method) element).getGenericReturnType();
+        }
+        return null;
+    }
+
+    /**
+     * @param annotation Annotation
+     * @param declaredType Declared type
+     * @return Reason why the injection point is not supported, or null if it is supported
+     */
+    static @Nullable String validate(@NotNull ContextAwareConfiguration annotation, @NotNull Type declaredType) {
+        if (annotation.stamp()) {
+            if (declaredType == long.class || declaredType == Long.class) {
+                return null;
+            }
+            return "Change-stamp can only be injected as long";
+        }
+        if (annotation.maxAgeSeconds() >= 0 && annotation.cacheScope() != CacheScope.SHARED) {
+            return "Max. age only applies to cache scope " + CacheScope.SHARED;
+        }
+        Type asyncValueType = getAsyncValueType(declaredType);
+        if (asyncValueType != null) {
+            return validateAsyncValueType(annotation, asyncValueType);
+        }
+        if (declaredType.equals(ConfigurationLookup.class)) {
+            if (StringUtils.isNotBlank(annotation.name())) {
+                return ConfigurationLookup.class.getSimpleName() + " does not support a configuration name";
+            }
+            return null;
+        }
+        if (declaredType instanceof Class) {
+            Class<?> clazz = (Class<?>) declaredType;
+            return validateConfigurationType(clazz.isArray() ? clazz.getComponentType() : clazz);
+        }
+        if (declaredType instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) declaredType;
+            Type rawType = parameterizedType.getRawType();
+            if (!(rawType.equals(Collection.class) || rawType.equals(List.class))) {
+                return "Only arrays, List and Collection are supported for configuration collections";
+            }
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            if (typeArguments.length != 1 || !(typeArguments[0] instanceof Class)) {
+                return "Collection type argument has to be a class";
+            }
+            return validateConfigurationType((Class<?>) typeArguments[0]);
+        }
+        return "Unsupported type";
+    }
+
+    /**
+     * @param declaredType Declared type
+     * @return Type argument of a {@link CompletionStage} or {@link CompletableFuture}, or null if the configuration
+     *     is not injected asynchronously
+     */
+    static @Nullable Type getAsyncValueType(@NotNull Type declaredType) {
+        if (declaredType instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) declaredType;
+            Type rawType = parameterizedType.getRawType();
+            if (rawType.equals(CompletionStage.class) || rawType.equals(CompletableFuture.class)) {
+                return parameterizedType.getActualTypeArguments()[0];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Configurations injected asynchronously are resolved with another resource resolver, so only detached types
+     * are supported - adaptables would be bound to a resource resolver that is closed after resolving.
+     */
+    private static @Nullable String validateAsyncValueType(
+            @NotNull ContextAwareConfiguration annotation, @NotNull Type valueType) {
+        if (valueType.equals(ConfigurationLookup.class) || getAsyncValueType(valueType) != null) {
+            return "Type argument " + valueType.getTypeName() + " cannot be injected asynchronously";
+        }
+        String unsupportedReason = validate(annotation, valueType);
+        if (unsupportedReason != null) {
+            return unsupportedReason;
+        }
+        Class<?> clazz;
+        if (valueType instanceof Class) {
+            clazz = (Class<?>) valueType;
+            if (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+        } else {
+            clazz = (Class<?>) ((ParameterizedType) valueType).getActualTypeArguments()[0];
+        }
+        if (!(clazz.equals(ValueMap.class) || clazz.equals(ConfigurationView.class) || clazz.isAnnotation())) {
+            return "Only configuration annotation classes, ValueMap and ConfigurationView can be injected "
+                    + "asynchronously";
+        }
+        return null;
+    }
+
+    private static @Nullable String validateConfigurationType(@NotNull Class<?> clazz) {
+        if (clazz.equals(ConfigurationLookup.class)) {
+            return ConfigurationLookup.class.getSimpleName() + " cannot be injected as collection";
+        }
+        if (clazz.isAnnotation() && !clazz.isAnnotationPresent(Configuration.class)) {
+            return "Annotation class is not annotated with @" + Configuration.class.getSimpleName();
+        }
+        return null;
+    }
+}
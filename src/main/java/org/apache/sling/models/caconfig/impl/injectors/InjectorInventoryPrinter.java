@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.io.PrintWriter;
+
+import org.apache.felix.inventory.Format;
+import org.apache.felix.inventory.InventoryPrinter;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Adds the cache and timing statistics of the context-aware configuration injector to the Felix inventory
+ * (and thus to the web console status page).
+ * Enabled by {@link org.apache.sling.models.caconfig.impl.OptionalComponentsEnabler} if the inventory API is available.
+ */
+@Component(
+        service = InventoryPrinter.class,
+        enabled = false,
+        property = {
+            InventoryPrinter.NAME + "=" + InjectorInventoryPrinter.NAME,
+            InventoryPrinter.TITLE + "=Sling Models Context-Aware Configuration",
+            InventoryPrinter.FORMAT + "=TEXT",
+            InventoryPrinter.FORMAT + "=JSON"
+        })
+public class InjectorInventoryPrinter implements InventoryPrinter {
+
+    static final String NAME = "slingmodelscaconfig";
+
+    @Reference
+    private InjectorStatistics injector;
+
+    @Override
+    public void print(PrintWriter printWriter, Format format, boolean isZip) {
+        if (format == Format.TEXT) {
+            InjectorStatisticsReport.write(injector, printWriter);
+        } else if (format == Format.JSON) {
+            InjectorStatisticsReport.writeJson(injector, printWriter);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import org.apache.sling.models.caconfig.impl.cache.CacheInvalidator;
+import org.apache.sling.models.caconfig.impl.cache.CacheStatistics;
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationCache;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Statistics and cache of the injector, registered as bundle-internal service for the inventory printer and the
+ * web console plugin.
+ */
+interface InjectorStatistics {
+
+    /**
+     * @return Aggregated injection problems
+     */
+    @NotNull
+    InjectionDiagnostics getDiagnostics();
+
+    /**
+     * @return Injection metrics or null if metrics are disabled
+     */
+    @Nullable
+    InjectionMetrics getMetrics();
+
+    /**
+     * @return Resource detection with per-strategy timing
+     */
+    @NotNull
+    ResourceDetector getResourceDetector();
+
+    /**
+     * @return Injection profile or null if profiling is disabled
+     */
+    @Nullable
+    InjectionProfile getProfile();
+
+    /**
+     * @return Configuration cache or null if the cache is disabled
+     */
+    @Nullable
+    ConfigurationCache getConfigurationCache();
+
+    /**
+     * @return Cache invalidator or null if the cache is disabled
+     */
+    @Nullable
+    CacheInvalidator getCacheInvalidator();
+
+    /**
+     * @return Statistics of the configuration cache or null if the cache is disabled
+     */
+    @Nullable
+    CacheStatistics getCacheStatistics();
+}
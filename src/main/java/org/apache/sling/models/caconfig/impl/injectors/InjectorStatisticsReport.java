@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.models.caconfig.impl.cache.CacheEntryInfo;
+import org.apache.sling.models.caconfig.impl.cache.CacheInvalidator;
+import org.apache.sling.models.caconfig.impl.cache.CacheKey;
+import org.apache.sling.models.caconfig.impl.cache.CacheStatistics;
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationCache;
+import org.apache.sling.models.caconfig.impl.cache.ContextKey;
+import org.apache.sling.models.caconfig.impl.metrics.ConfigurationMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionProfile;
+import org.apache.sling.models.caconfig.impl.metrics.LatencyHistogram;
+import org.apache.sling.models.caconfig.impl.metrics.MemberProfile;
+import org.apache.sling.models.caconfig.impl.metrics.ModelProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Renders the cache and timing statistics of the injector as plain text or JSON.
+ * Shared by the inventory printer and the web console plugin.
+ */
+final class InjectorStatisticsReport {
+
+    private InjectorStatisticsReport() {
+        // static methods only
+    }
+
+    static void write(@NotNull InjectorStatistics injector, @NotNull PrintWriter out) {
+        ConfigurationCache cache = injector.getConfigurationCache();
+        CacheStatistics statistics = injector.getCacheStatistics();
+
+        out.println("Configuration cache");
+        out.println("===================");
+        if (cache == null || statistics == null) {
+            out.println("disabled");
+        } else {
+            out.println(statistics);
+            CacheInvalidator invalidator = injector.getCacheInvalidator();
+            if (invalidator != null) {
+                out.printf(
+                        "Invalidation: %d changed paths, %d passes, %d full invalidations%n",
+                        invalidator.getChangedPaths(), invalidator.getPasses(), invalidator.getFullInvalidations());
+            }
+        }
+        out.println();
+
+        InjectionMetrics injectionMetrics = injector.getMetrics();
+        if (injectionMetrics == null) {
+            out.println("Metrics");
+            out.println("=======");
+            out.println("disabled");
+            out.println();
+        } else {
+            writeMetrics(injectionMetrics, getEntrySizes(cache), out);
+        }
+
+        out.println("Resource detection strategies");
+        out.println("=============================");
+        out.printf(
+                Locale.ENGLISH,
+                "%-80s %8s %10s %10s %10s %10s %10s%n",
+                "Strategy",
+                "Ranking",
+                "Calls",
+                "p50 [us]",
+                "p99 [us]",
+                "Cache hits",
+                "TTL [s]");
+        for (ResourceDetector.Strategy strategy : injector.getResourceDetector().getStrategies()) {
+            LatencyHistogram timing = strategy.getTiming();
+            out.printf(
+                    Locale.ENGLISH,
+                    "%-80s %8d %10d %10d %10d %10d %10s%n",
+                    strategy.getName(),
+                    strategy.getRanking(),
+                    timing.getCount(),
+                    toMicros(timing.getPercentileNanos(0.5)),
+                    toMicros(timing.getPercentileNanos(0.99)),
+                    strategy.getCacheHits(),
+                    strategy.getCacheTtlMillis() > 0
+                            ? Long.toString(TimeUnit.MILLISECONDS.toSeconds(strategy.getCacheTtlMillis()))
+                            : "-");
+        }
+        out.println();
+
+        InjectionProfile profile = injector.getProfile();
+        if (profile != null) {
+            out.println("Injection profile");
+            out.println("=================");
+            out.printf(
+                    Locale.ENGLISH,
+                    "%-80s %10s %12s %16s%n",
+                    "Model class / member",
+                    "Injections",
+                    "Total [ms]",
+                    InjectionProfile.isAllocationMeasured() ? "Allocated [KB]" : "");
+            for (ModelProfile model : profile.getModelProfiles()) {
+                printProfile(
+                        out,
+                        model.getModelClass(),
+                        model.getInjections(),
+                        model.getTotalNanos(),
+                        model.getAllocatedBytes());
+                for (MemberProfile member : model.getMembers()) {
+                    printProfile(
+                            out,
+                            "    " + member.getMember(),
+                            member.getInjections(),
+                            member.getTotalNanos(),
+                            member.getAllocatedBytes());
+                }
+            }
+            out.println();
+        }
+
+        out.println("Injection problems");
+        out.println("==================");
+        for (InjectionDiagnostics.Summary summary : injector.getDiagnostics().getSummaries()) {
+            out.println(summary.getLocation() + ": " + summary.getReason() + " (" + summary.getCount() + "x)");
+            for (String sample : summary.getSamples()) {
+                out.println("    " + sample);
+            }
+        }
+    }
+
+    private static void writeMetrics(
+            @NotNull InjectionMetrics injectionMetrics,
+            @NotNull Map<String, long[]> entrySizes,
+            @NotNull PrintWriter out) {
+        out.println("Configurations");
+        out.println("==============");
+        out.printf(
+                Locale.ENGLISH,
+                "%-40s %-40s %10s %10s %10s %8s %8s %12s %10s%n",
+                "Context",
+                "Configuration",
+                "Injections",
+                "p50 [us]",
+                "p99 [us]",
+                "Hit ratio",
+                "Entries",
+                "Size [bytes]",
+                "Evictions");
+        for (ConfigurationMetrics metrics : injectionMetrics.getConfigurationMetrics()) {
+            LatencyHistogram resolution = metrics.getResolution();
+            long[] size = entrySizes.get(entryKey(metrics.getContextPath(), metrics.getConfigName()));
+            out.printf(
+                    Locale.ENGLISH,
+                    "%-40s %-40s %10d %10d %10d %8s %8d %12d %10d%n",
+                    metrics.getContextPath(),
+                    metrics.getConfigName(),
+                    metrics.getInjections(),
+                    toMicros(resolution.getPercentileNanos(0.5)),
+                    toMicros(resolution.getPercentileNanos(0.99)),
+                    formatRatio(metrics.getCacheHitRatio()),
+                    size != null ? size[0] : 0,
+                    size != null ? size[1] : 0,
+                    metrics.getEvictions());
+        }
+        out.println();
+    }
+
+    private static void printProfile(
+            PrintWriter out, String name, long injections, long totalNanos, long allocatedBytes) {
+        out.printf(
+                Locale.ENGLISH,
+                "%-80s %10d %12d %16s%n",
+                name,
+                injections,
+                TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                InjectionProfile.isAllocationMeasured() ? Long.toString(allocatedBytes / 1024) : "");
+    }
+
+    /**
+     * Writes configuration metrics and injection profile as JSON, ordered by cost.
+     */
+    static void writeJson(@NotNull InjectorStatistics injector, @NotNull PrintWriter out) {
+        out.print("{\"configurations\":[");
+        boolean first = true;
+        InjectionMetrics injectionMetrics = injector.getMetrics();
+        List<ConfigurationMetrics> configurations =
+                injectionMetrics != null ? injectionMetrics.getConfigurationMetrics() : Collections.emptyList();
+        for (ConfigurationMetrics metrics : configurations) {
+            LatencyHistogram resolution = metrics.getResolution();
+            out.print(first ? "{" : ",{");
+            first = false;
+            out.print("\"contextPath\":" + quote(metrics.getContextPath()));
+            out.print(",\"configName\":" + quote(metrics.getConfigName()));
+            out.print(",\"injections\":" + metrics.getInjections());
+            out.print(",\"p50Micros\":" + toMicros(resolution.getPercentileNanos(0.5)));
+            out.print(",\"p99Micros\":" + toMicros(resolution.getPercentileNanos(0.99)));
+            if (metrics.getCacheHitRatio() >= 0) {
+                out.print(",\"cacheHitRatio\":" + String.format(Locale.ENGLISH, "%.4f", metrics.getCacheHitRatio()));
+            }
+            out.print(",\"evictions\":" + metrics.getEvictions());
+            out.print("}");
+        }
+        out.print("]");
+
+        InjectionProfile profile = injector.getProfile();
+        if (profile != null) {
+            out.print(",\"allocationsMeasured\":" + InjectionProfile.isAllocationMeasured());
+            out.print(",\"models\":[");
+            first = true;
+            for (ModelProfile model : profile.getModelProfiles()) {
+                out.print(first ? "{" : ",{");
+                first = false;
+                out.print("\"modelClass\":" + quote(model.getModelClass()));
+                writeJsonProfile(out, model.getInjections(), model.getTotalNanos(), model.getAllocatedBytes());
+                out.print(",\"members\":[");
+                boolean firstMember = true;
+                for (MemberProfile member : model.getMembers()) {
+                    out.print(firstMember ? "{" : ",{");
+                    firstMember = false;
+                    out.print("\"member\":" + quote(member.getMember()));
+                    writeJsonProfile(out, member.getInjections(), member.getTotalNanos(), member.getAllocatedBytes());
+                    out.print("}");
+                }
+                out.print("]}");
+            }
+            out.print("]");
+        }
+        out.println("}");
+    }
+
+    private static void writeJsonProfile(PrintWriter out, long injections, long totalNanos, long allocatedBytes) {
+        out.print(",\"injections\":" + injections);
+        out.print(",\"totalMicros\":" + toMicros(totalNanos));
+        out.print(",\"meanMicros\":" + (injections > 0 ? toMicros(totalNanos / injections) : 0));
+        if (InjectionProfile.isAllocationMeasured()) {
+            out.print(",\"allocatedBytes\":" + allocatedBytes);
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * @param contextPath Context path, the context itself and all descendants match. Blank matches all.
+     * @param configName Configuration name. Blank matches all.
+     * @return Filter for cache keys
+     */
+    static @NotNull Predicate<CacheKey> filter(@Nullable String contextPath, @Nullable String configName) {
+        return key -> {
+            if (StringUtils.isNotBlank(configName) && !StringUtils.equals(configName, key.getConfigName())) {
+                return false;
+            }
+            if (StringUtils.isNotBlank(contextPath)) {
+                String keyContextPath = key.getContextKey().getContextPath();
+                return keyContextPath != null && ContextKey.isSameOrDescendant(keyContextPath, contextPath);
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Sums up number and size of cache entries per context path and configuration name.
+     */
+    private static Map<String, long[]> getEntrySizes(@Nullable ConfigurationCache cache) {
+        Map<String, long[]> result = new HashMap<>();
+        if (cache == null) {
+            return result;
+        }
+        for (CacheEntryInfo entry : cache.getEntries()) {
+            CacheKey key = entry.getKey();
+            String contextPath = StringUtils.defaultString(key.getContextKey().getContextPath(), "/");
+            long[] size = result.computeIfAbsent(entryKey(contextPath, key.getConfigName()), k -> new long[2]);
+            size[0]++;
+            size[1] += entry.getWeight();
+        }
+        return result;
+    }
+
+    private static String entryKey(String contextPath, String configName) {
+        return contextPath + "\n" + configName;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static String formatRatio(double ratio) {
+        return ratio < 0 ? "-" : String.format(Locale.ENGLISH, "%.1f%%", ratio * 100);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URLEncoder;
+
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationCache;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionProfile;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Felix web console plugin showing the cache and timing statistics of the context-aware configuration injector.
+ * Allows to flush or warm (re-resolve in background) cached configurations, filtered by context path and
+ * configuration name.
+ */
+@Component(
+        service = Servlet.class,
+        property = {
+            "felix.webconsole.label=" + InjectorWebConsolePlugin.LABEL,
+            "felix.webconsole.title=Sling Models CA Config",
+            "felix.webconsole.category=Sling"
+        })
+public class InjectorWebConsolePlugin extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    static final String LABEL = "slingmodelscaconfig";
+
+    static final String PARAM_ACTION = "action";
+    static final String PARAM_CONTEXT_PATH = "contextPath";
+    static final String PARAM_CONFIG_NAME = "configName";
+    static final String ACTION_FLUSH = "flush";
+    static final String ACTION_WARM = "warm";
+    static final String ACTION_RESET = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(InjectorWebConsolePlugin.class);
+
+    @Reference
+    private transient InjectorStatistics injector;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/html");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+
+        String message = request.getParameter("message");
+        if (message != null) {
+            out.println("<p class=\"statline\">" + escape(message) + "</p>");
+        }
+
+        out.println("<form method=\"post\">");
+        out.println("<table class=\"nicetable\"><tbody><tr>");
+        out.println("<td>Context path <input type=\"text\" name=\"" + PARAM_CONTEXT_PATH + "\" size=\"40\"/></td>");
+        out.println(
+                "<td>Configuration name <input type=\"text\" name=\"" + PARAM_CONFIG_NAME + "\" size=\"40\"/></td>");
+        out.println("<td><button type=\"submit\" name=\"" + PARAM_ACTION + "\" value=\"" + ACTION_FLUSH
+                + "\">Flush</button>");
+        out.println(
+                "<button type=\"submit\" name=\"" + PARAM_ACTION + "\" value=\"" + ACTION_WARM + "\">Warm</button>");
+        out.println("<button type=\"submit\" name=\"" + PARAM_ACTION + "\" value=\"" + ACTION_RESET
+                + "\">Reset statistics</button></td>");
+        out.println("</tr></tbody></table>");
+        out.println("</form>");
+
+        StringWriter report = new StringWriter();
+        InjectorStatisticsReport.write(injector, new PrintWriter(report));
+        out.println("<pre>");
+        out.println(escape(report.toString()));
+        out.println("</pre>");
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String message = execute(
+                request.getParameter(PARAM_ACTION),
+                request.getParameter(PARAM_CONTEXT_PATH),
+                request.getParameter(PARAM_CONFIG_NAME));
+        response.sendRedirect(request.getRequestURI() + "?message=" + URLEncoder.encode(message, "UTF-8"));
+    }
+
+    /**
+     * @param action Action
+     * @param contextPath Context path filter
+     * @param configName Configuration name filter
+     * @return Result message
+     */
+    String execute(String action, String contextPath, String configName) {
+        if (ACTION_RESET.equals(action)) {
+            InjectionMetrics metrics = injector.getMetrics();
+            InjectionProfile profile = injector.getProfile();
+            if (metrics == null && profile == null) {
+                return "Metrics are disabled.";
+            }
+            if (metrics != null) {
+                metrics.reset();
+            }
+            if (profile != null) {
+                profile.reset();
+            }
+            return "Statistics reset.";
+        }
+        ConfigurationCache cache = injector.getConfigurationCache();
+        if (cache == null) {
+            return "Configuration cache is disabled.";
+        }
+        if (ACTION_FLUSH.equals(action)) {
+            int count = cache.remove(InjectorStatisticsReport.filter(contextPath, configName));
+            log.info("Flushed {} cached configurations (context path: {}, name: {})", count, contextPath, configName);
+            return "Flushed " + count + " cached configurations.";
+        }
+        if (ACTION_WARM.equals(action)) {
+            int count = cache.refresh(InjectorStatisticsReport.filter(contextPath, configName));
+            return "Scheduled refresh of " + count + " cached configurations.";
+        }
+        return "Unknown action: " + action;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                case '\'':
+                    escaped.append("&#39;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
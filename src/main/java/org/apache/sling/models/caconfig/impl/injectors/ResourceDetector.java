@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.caconfig.management.multiplexer.ConfigurationInjectResourceDetectionStrategyMultiplexer;
+import org.apache.sling.caconfig.spi.ConfigurationInjectResourceDetectionStrategy;
+import org.apache.sling.commons.osgi.Order;
+import org.apache.sling.commons.osgi.PropertiesUtil;
+import org.apache.sling.commons.osgi.RankedServices;
+import org.apache.sling.models.caconfig.impl.metrics.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Detects the resource of a request by calling the {@link ConfigurationInjectResourceDetectionStrategy} services
+ * in ranking order, measuring the time spent in each strategy. Ordering and property parsing are delegated to
+ * {@link RankedServices} and {@link PropertiesUtil} of Sling Commons OSGi, like in the caconfig multiplexer.
+ * <p>
+ * Strategies opt into caching of their results with the service property {@link #PROPERTY_CACHE_TTL_SECONDS}.
+ * The result is then cached by path and resource type of the request resource, so the strategy must not depend
+ * on anything else of the request. Only the path of the detected resource is cached, it is retrieved with the
+ * resource resolver of each request. Cache lookups take no lock. Once a cache is full, entries are evicted in
+ * insertion order, but entries read since their insertion get a second chance, which approximates least recently
+ * used order.
+ * </p>
+ */
+final class ResourceDetector {
+
+    /**
+     * Service property of a strategy declaring that its results can be cached for the given number of seconds.
+     */
+    static final String PROPERTY_CACHE_TTL_SECONDS = "sling.models.caconfig.detection.cacheTtlSeconds";
+
+    static final int MAX_CACHE_ENTRIES = 10000;
+
+    private static final String SERVICE_RANKING = "service.ranking";
+
+    // marks cached results of a strategy which did not detect a resource
+    private static final String NO_RESULT = "";
+
+    private final LongSupplier clock;
+    private final RankedServices<Strategy> strategies = new RankedServices<>(Order.DESCENDING);
+
+    ResourceDetector(@NotNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    void bind(@NotNull ConfigurationInjectResourceDetectionStrategy strategy, @NotNull Map<String, Object> properties) {
+        strategies.bind(new Strategy(strategy, properties), properties);
+    }
+
+    void unbind(
+            @NotNull ConfigurationInjectResourceDetectionStrategy strategy, @NotNull Map<String, Object> properties) {
+        // the ranked services identify the entry by its service properties
+        strategies.unbind(null, properties);
+    }
+
+    /**
+     * @param request Request
+     * @param multiplexer Multiplexer used if no strategies are bound
+     * @return Detected resource or null
+     */
+    @Nullable
+    Resource detectResource(
+            @NotNull SlingHttpServletRequest request,
+            @NotNull ConfigurationInjectResourceDetectionStrategyMultiplexer multiplexer) {
+        List<Strategy> currentStrategies = strategies.getList();
+        if (currentStrategies.isEmpty()) {
+            return multiplexer.detectResource(request);
+        }
+        for (Strategy strategy : currentStrategies) {
+            Resource resource = strategy.detectResource(request);
+            if (resource != null) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Bound strategies in ranking order
+     */
+    @NotNull
+    List<Strategy> getStrategies() {
+        return strategies.getList();
+    }
+
+    /**
+     * A strategy with its timing and optional result cache.
+     */
+    final class Strategy {
+
+        private final ConfigurationInjectResourceDetectionStrategy strategy;
+        private final int ranking;
+        private final long cacheTtlMillis;
+        private final ResultCache cache;
+        private final LatencyHistogram timing = new LatencyHistogram();
+        private final LongAdder cacheHits = new LongAdder();
+
+        Strategy(
+                @NotNull ConfigurationInjectResourceDetectionStrategy strategy,
+                @NotNull Map<String, Object> properties) {
+            this.strategy = strategy;
+            this.ranking = PropertiesUtil.toInteger(properties.get(SERVICE_RANKING), 0);
+            this.cacheTtlMillis =
+                    TimeUnit.SECONDS.toMillis(PropertiesUtil.toLong(properties.get(PROPERTY_CACHE_TTL_SECONDS), 0));
+            this.cache = cacheTtlMillis > 0 ? new ResultCache() : null;
+        }
+
+        private @Nullable Resource detectResource(@NotNull SlingHttpServletRequest request) {
+            String cacheKey = getCacheKey(request);
+            if (cacheKey != null) {
+                CachedResult cached = cache.get(cacheKey);
+                if (cached != null && cached.expires > clock.getAsLong()) {
+                    if (NO_RESULT.equals(cached.path)) {
+                        cacheHits.increment();
+                        return null;
+                    }
+                    Resource resource = request.getResourceResolver().getResource(cached.path);
+                    if (resource != null) {
+                        cacheHits.increment();
+                        return resource;
+                    }
+                }
+            }
+
+            long start = System.nanoTime();
+            Resource resource = strategy.detectResource(request);
+            timing.record(System.nanoTime() - start);
+
+            if (cacheKey != null) {
+                cache.put(new CachedResult(
+                        cacheKey,
+                        resource != null ? resource.getPath() : NO_RESULT,
+                        clock.getAsLong() + cacheTtlMillis));
+            }
+            return resource;
+        }
+
+        private @Nullable String getCacheKey(@NotNull SlingHttpServletRequest request) {
+            if (cache == null) {
+                return null;
+            }
+            Resource resource = request.getResource();
+            if (resource == null) {
+                return null;
+            }
+            return resource.getPath() + "\n" + resource.getResourceType();
+        }
+
+        @NotNull
+        String getName() {
+            return strategy.getClass().getName();
+        }
+
+        int getRanking() {
+            return ranking;
+        }
+
+        /**
+         * @return Cache TTL or 0 if the strategy is not cacheable
+         */
+        long getCacheTtlMillis() {
+            return cacheTtlMillis;
+        }
+
+        /**
+         * @return Duration of the strategy calls, not including cache hits
+         */
+        @NotNull
+        LatencyHistogram getTiming() {
+            return timing;
+        }
+
+        long getCacheHits() {
+            return cacheHits.sum();
+        }
+    }
+
+    /**
+     * Result cache of a strategy with lock-free lookups, bounded with the second chance (clock) algorithm.
+     */
+    private static final class ResultCache {
+
+        private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+        // results in insertion order, including replaced ones until they are polled
+        private final Queue<CachedResult> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+
+        @Nullable
+        CachedResult get(@NotNull String key) {
+            CachedResult result = results.get(key);
+            if (result != null && !result.referenced) {
+                result.referenced = true;
+            }
+            return result;
+        }
+
+        void put(@NotNull CachedResult result) {
+            results.put(result.key, result);
+            queue.offer(result);
+            queueSize.incrementAndGet();
+            while (queueSize.get() > MAX_CACHE_ENTRIES) {
+                CachedResult eldest = queue.poll();
+                if (eldest == null) {
+                    return;
+                }
+                queueSize.decrementAndGet();
+                if (results.get(eldest.key) != eldest) {
+                    // replaced or evicted already
+                    continue;
+                }
+                if (eldest.referenced) {
+                    eldest.referenced = false;
+                    queue.offer(eldest);
+                    queueSize.incrementAndGet();
+                } else {
+                    results.remove(eldest.key, eldest);
+                }
+            }
+        }
+    }
+
+    private static final class CachedResult {
+
+        private final String key;
+        private final String path;
+        private final long expires;
+        private volatile boolean referenced;
+
+        CachedResult(String key, String path, long expires) {
+            this.key = key;
+            this.path = path;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.jackson;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.sling.models.jacksonexporter.ModuleProvider;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Registers a Jackson module with the Sling Models Jackson exporter, which serializes injected context-aware
+ * configuration annotation instances as JSON objects with one property per annotation method.
+ * Without it Jackson fails on these proxies, as they do not expose bean getters.
+ * Injected value maps are serialized as maps by Jackson already.
+ * Enabled by {@link org.apache.sling.models.caconfig.impl.OptionalComponentsEnabler} if Jackson and the exporter are available.
+ */
+@Component(service = ModuleProvider.class, enabled = false)
+public class ConfigurationModuleProvider implements ModuleProvider {
+
+    static final String MODULE_NAME = "org.apache.sling.models.caconfig";
+
+    private final Module module = createModule();
+
+    static Module createModule() {
+        SimpleModule module = new SimpleModule(MODULE_NAME) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void setupModule(SetupContext context) {
+                super.setupModule(context);
+                context.addSerializers(new ConfigurationSerializers());
+            }
+        };
+        return module;
+    }
+
+    @Override
+    public Module getModule() {
+        return module;
+    }
+}
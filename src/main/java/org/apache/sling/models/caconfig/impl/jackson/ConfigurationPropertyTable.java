@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.jackson;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.sling.models.caconfig.impl.cache.ValueMapConfigurationProxy;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Properties of a context-aware configuration annotation class, computed once per class.
+ */
+final class ConfigurationPropertyTable {
+
+    private static final ClassValue<ConfigurationPropertyTable> TABLES = new ClassValue<ConfigurationPropertyTable>() {
+        @Override
+        protected ConfigurationPropertyTable computeValue(Class<?> type) {
+            return new ConfigurationPropertyTable(type);
+        }
+    };
+
+    private final String[] names;
+    private final Method[] methods;
+
+    private ConfigurationPropertyTable(@NotNull Class<?> annotationClass) {
+        List<Method> properties = new ArrayList<>();
+        for (Method method : annotationClass.getDeclaredMethods()) {
+            if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())) {
+                properties.add(method);
+            }
+        }
+        // the order of declared methods is unspecified, sort by property name for a stable output
+        properties.sort(Comparator.comparing(method -> ValueMapConfigurationProxy.getPropertyName(method.getName())));
+        this.methods = properties.toArray(new Method[0]);
+        // write the names of the persisted properties, e.g. "site.url" for method "site_url"
+        this.names = Arrays.stream(methods)
+                .map(method -> ValueMapConfigurationProxy.getPropertyName(method.getName()))
+                .toArray(String[]::new);
+        for (Method method : methods) {
+            method.setAccessible(true);
+        }
+    }
+
+    static @NotNull ConfigurationPropertyTable get(@NotNull Class<?> annotationClass) {
+        return TABLES.get(annotationClass);
+    }
+
+    int size() {
+        return methods.length;
+    }
+
+    @NotNull
+    String getName(int index) {
+        return names[index];
+    }
+
+    @NotNull
+    Method getMethod(int index) {
+        return methods[index];
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.jackson;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Serializes a context-aware configuration annotation instance as JSON object, using the precomputed property
+ * table of its annotation class. Scalar values and arrays are written directly, nested configurations are
+ * delegated to the serializer provider.
+ */
+final class ConfigurationSerializer extends JsonSerializer<Object> {
+
+    private final ConfigurationPropertyTable table;
+
+    ConfigurationSerializer(ConfigurationPropertyTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < table.size(); i++) {
+            gen.writeFieldName(table.getName(i));
+            writeValue(getValue(value, i, provider), gen, provider);
+        }
+        gen.writeEndObject();
+    }
+
+    private Object getValue(Object value, int index, SerializerProvider provider) throws JsonMappingException {
+        try {
+            return table.getMethod(index).invoke(value);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw JsonMappingException.from(
+                    provider, "Unable to get configuration property " + table.getName(index), ex);
+        }
+    }
+
+    private static void writeValue(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof String) {
+            gen.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            gen.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            gen.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            gen.writeNumber((Long) value);
+        } else if (value instanceof Double) {
+            gen.writeNumber((Double) value);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            gen.writeStartArray();
+            for (int i = 0; i < length; i++) {
+                writeValue(Array.get(value, i), gen, provider);
+            }
+            gen.writeEndArray();
+        } else {
+            // nested configurations and other types
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.jackson;
+
+import java.lang.reflect.Proxy;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import org.apache.sling.caconfig.annotation.Configuration;
+
+/**
+ * Provides {@link ConfigurationSerializer} instances for context-aware configuration annotation proxies, as
+ * created by the caconfig implementation and the configuration cache of the injector.
+ */
+final class ConfigurationSerializers extends Serializers.Base {
+
+    @Override
+    public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+        Class<?> annotationClass = getConfigurationClass(type.getRawClass());
+        if (annotationClass == null) {
+            return null;
+        }
+        return new ConfigurationSerializer(ConfigurationPropertyTable.get(annotationClass));
+    }
+
+    static Class<?> getConfigurationClass(Class<?> clazz) {
+        if (isConfigurationClass(clazz)) {
+            return clazz;
+        }
+        if (Proxy.isProxyClass(clazz)) {
+            for (Class<?> interfaceClass : clazz.getInterfaces()) {
+                if (isConfigurationClass(interfaceClass)) {
+                    return interfaceClass;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConfigurationClass(Class<?> clazz) {
+        return clazz.isAnnotation() && clazz.isAnnotationPresent(Configuration.class);
+    }
+}
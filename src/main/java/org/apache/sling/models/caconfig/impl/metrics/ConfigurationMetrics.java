@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Injection metrics of one configuration name in one context.
+ */
+public final class ConfigurationMetrics {
+
+    private final String contextPath;
+    private final String configName;
+    private final LongAdder injections = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LatencyHistogram resolution = new LatencyHistogram();
+
+    ConfigurationMetrics(@NotNull String contextPath, @NotNull String configName) {
+        this.contextPath = contextPath;
+        this.configName = configName;
+    }
+
+    void recordCached(boolean hit, long nanos) {
+        injections.increment();
+        if (hit) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            resolution.record(nanos);
+        }
+    }
+
+    void recordUncached(long nanos) {
+        injections.increment();
+        resolution.record(nanos);
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    public @NotNull String getContextPath() {
+        return contextPath;
+    }
+
+    public @NotNull String getConfigName() {
+        return configName;
+    }
+
+    public long getInjections() {
+        return injections.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return Ratio of cache hits to cached injections, or -1 if not served from the cache
+     */
+    public double getCacheHitRatio() {
+        long hits = getCacheHits();
+        long total = hits + getCacheMisses();
+        return total > 0 ? (double) hits / total : -1;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Latency of resolving the configuration, excluding cache hits
+     */
+    public @NotNull LatencyHistogram getResolution() {
+        return resolution;
+    }
+}
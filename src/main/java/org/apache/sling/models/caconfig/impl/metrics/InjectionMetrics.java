@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects injection metrics per configuration name and context path. Costs per model class are collected by the
+ * {@link InjectionProfile}.
+ * The number of tracked keys is bounded - further keys are aggregated in a single overflow entry.
+ */
+public final class InjectionMetrics {
+
+    /**
+     * Context path reported for configurations not served from the cache, which are resolved without looking up
+     * their context.
+     */
+    public static final String UNCACHED_CONTEXT = "(uncached)";
+
+    static final String OVERFLOW = "(other)";
+
+    private final int maxKeys;
+    private final Map<Key, ConfigurationMetrics> configurations = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxKeys Maximum number of configuration keys tracked
+     */
+    public InjectionMetrics(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @param contextPath Nearest context path, null for resources without context
+     * @param configName Configuration name
+     * @param hit true if served from the cache
+     * @param nanos Duration of getting the configuration
+     */
+    public void recordCached(@Nullable String contextPath, @NotNull String configName, boolean hit, long nanos) {
+        getConfigurationMetrics(contextPath, configName).recordCached(hit, nanos);
+    }
+
+    /**
+     * @param configName Configuration name
+     * @param nanos Duration of resolving the configuration
+     */
+    public void recordUncached(@NotNull String configName, long nanos) {
+        getConfigurationMetrics(UNCACHED_CONTEXT, configName).recordUncached(nanos);
+    }
+
+    /**
+     * @param contextPath Nearest context path, null for resources without context
+     * @param configName Configuration name
+     */
+    public void recordEviction(@Nullable String contextPath, @NotNull String configName) {
+        getConfigurationMetrics(contextPath, configName).recordEviction();
+    }
+
+    private ConfigurationMetrics getConfigurationMetrics(@Nullable String contextPath, @NotNull String configName) {
+        Key key = new Key(contextPath != null ? contextPath : "/", configName);
+        ConfigurationMetrics metrics = configurations.get(key);
+        if (metrics == null) {
+            Key metricsKey = configurations.size() < maxKeys ? key : new Key(OVERFLOW, OVERFLOW);
+            metrics = configurations.computeIfAbsent(
+                    metricsKey, k -> new ConfigurationMetrics(k.contextPath, k.configName));
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Configuration metrics, ordered by number of injections
+     */
+    public @NotNull List<ConfigurationMetrics> getConfigurationMetrics() {
+        List<ConfigurationMetrics> result = new ArrayList<>(configurations.values());
+        result.sort(
+                Comparator.comparingLong(ConfigurationMetrics::getInjections).reversed());
+        return result;
+    }
+
+    /**
+     * Resets all metrics.
+     */
+    public void reset() {
+        configurations.clear();
+    }
+
+    private static final class Key {
+
+        private final String contextPath;
+        private final String configName;
+
+        Key(String contextPath, String configName) {
+            this.contextPath = contextPath;
+            this.configName = configName;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * contextPath.hashCode() + configName.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(contextPath, other.contextPath) && Objects.equals(configName, other.configName);
+        }
+    }
+}
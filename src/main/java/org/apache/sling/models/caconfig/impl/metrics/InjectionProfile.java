@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Aggregates injection time and allocated bytes per model class and injected member.
+ * Allocations are measured per thread and include everything allocated while injecting, e.g. by resolving
+ * the configuration. The number of tracked members is bounded - further members are aggregated in a single
+ * overflow entry.
+ */
+public final class InjectionProfile {
+
+    private final int maxMembers;
+    private final Map<String, Map<String, MemberProfile>> models = new ConcurrentHashMap<>();
+    private final AtomicInteger memberCount = new AtomicInteger();
+
+    /**
+     * @param maxMembers Maximum number of tracked members
+     */
+    public InjectionProfile(int maxMembers) {
+        this.maxMembers = maxMembers;
+    }
+
+    /**
+     * @return true if allocations are measured
+     */
+    public static boolean isAllocationMeasured() {
+        return AllocationMeter.isSupported();
+    }
+
+    /**
+     * @return Start marker to pass to {@link #record(String, String, Sample)}
+     */
+    public static @NotNull Sample start() {
+        return new Sample(System.nanoTime(), AllocationMeter.getAllocatedBytes());
+    }
+
+    /**
+     * @param modelClass Owning model class
+     * @param member Member name
+     * @param start Start marker taken before the injection
+     */
+    public void record(@NotNull String modelClass, @NotNull String member, @NotNull Sample start) {
+        long nanos = System.nanoTime() - start.nanos;
+        long allocatedBytes =
+                start.allocatedBytes >= 0 ? AllocationMeter.getAllocatedBytes() - start.allocatedBytes : 0;
+        getMemberProfile(modelClass, member).record(nanos, allocatedBytes);
+    }
+
+    private MemberProfile getMemberProfile(String modelClass, String member) {
+        Map<String, MemberProfile> members = models.get(modelClass);
+        MemberProfile profile = members != null ? members.get(member) : null;
+        if (profile != null) {
+            return profile;
+        }
+        String profileClass = modelClass;
+        String profileMember = member;
+        if (memberCount.get() >= maxMembers) {
+            profileClass = InjectionMetrics.OVERFLOW;
+            profileMember = InjectionMetrics.OVERFLOW;
+        }
+        String finalMember = profileMember;
+        return models.computeIfAbsent(profileClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(profileMember, key -> {
+                    memberCount.incrementAndGet();
+                    return new MemberProfile(finalMember);
+                });
+    }
+
+    /**
+     * @return Profiles per model class, ordered by total injection time (most expensive first)
+     */
+    public @NotNull List<ModelProfile> getModelProfiles() {
+        List<ModelProfile> result = new ArrayList<>();
+        for (Map.Entry<String, Map<String, MemberProfile>> entry : models.entrySet()) {
+            List<MemberProfile> members = new ArrayList<>(entry.getValue().values());
+            members.sort(Comparator.comparingLong(MemberProfile::getTotalNanos).reversed());
+            result.add(new ModelProfile(entry.getKey(), members));
+        }
+        result.sort(Comparator.comparingLong(ModelProfile::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Resets the profile.
+     */
+    public void reset() {
+        models.clear();
+        memberCount.set(0);
+    }
+
+    /**
+     * Start marker of an injection.
+     */
+    public static final class Sample {
+
+        private final long nanos;
+        private final long allocatedBytes;
+
+        Sample(long nanos, long allocatedBytes) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
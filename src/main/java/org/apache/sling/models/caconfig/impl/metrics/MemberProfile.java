@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Injection cost of one member of a model class.
+ */
+public final class MemberProfile {
+
+    private final String member;
+    private final LongAdder injections = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    MemberProfile(@NotNull String member) {
+        this.member = member;
+    }
+
+    void record(long nanos, long bytes) {
+        injections.increment();
+        totalNanos.add(nanos);
+        allocatedBytes.add(bytes);
+    }
+
+    /**
+     * @return Field or method name, or the description of a constructor parameter
+     */
+    public @NotNull String getMember() {
+        return member;
+    }
+
+    public long getInjections() {
+        return injections.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return Estimated bytes allocated by all injections, 0 if allocations are not measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+}
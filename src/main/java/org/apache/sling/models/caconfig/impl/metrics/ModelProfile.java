@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Injection cost of one model class, aggregated over its members.
+ */
+public final class ModelProfile {
+
+    private final String modelClass;
+    private final List<MemberProfile> members;
+    private final long injections;
+    private final long totalNanos;
+    private final long allocatedBytes;
+
+    ModelProfile(@NotNull String modelClass, @NotNull List<MemberProfile> members) {
+        this.modelClass = modelClass;
+        this.members = members;
+        long currentInjections = 0;
+        long currentNanos = 0;
+        long currentBytes = 0;
+        for (MemberProfile member : members) {
+            currentInjections += member.getInjections();
+            currentNanos += member.getTotalNanos();
+            currentBytes += member.getAllocatedBytes();
+        }
+        this.injections = currentInjections;
+        this.totalNanos = currentNanos;
+        this.allocatedBytes = currentBytes;
+    }
+
+    public @NotNull String getModelClass() {
+        return modelClass;
+    }
+
+    /**
+     * @return Members ordered by total injection time (most expensive first)
+     */
+    public @NotNull List<MemberProfile> getMembers() {
+        return members;
+    }
+
+    public long getInjections() {
+        return injections;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
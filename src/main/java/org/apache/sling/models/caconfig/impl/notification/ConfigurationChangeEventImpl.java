@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.notification;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+final class ConfigurationChangeEventImpl implements ConfigurationChangeEvent {
+
+    private final String contextPath;
+    private final Set<String> configNames;
+    private final Set<Class<?>> cachedModelClasses;
+    private final long stamp;
+
+    ConfigurationChangeEventImpl(
+            @NotNull String contextPath,
+            @NotNull Set<String> configNames,
+            @NotNull Set<Class<?>> cachedModelClasses,
+            long stamp) {
+        this.contextPath = contextPath;
+        this.configNames = Collections.unmodifiableSet(configNames);
+        this.cachedModelClasses = Collections.unmodifiableSet(cachedModelClasses);
+        this.stamp = stamp;
+    }
+
+    @Override
+    public @NotNull String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public @NotNull Set<String> getConfigNames() {
+        return configNames;
+    }
+
+    @Override
+    public @NotNull Set<Class<?>> getCachedModelClasses() {
+        return cachedModelClasses;
+    }
+
+    @Override
+    public long getStamp() {
+        return stamp;
+    }
+
+    @Override
+    public String toString() {
+        return contextPath + configNames + "@" + stamp;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.notification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.models.caconfig.impl.cache.ChangeStamps;
+import org.apache.sling.models.caconfig.impl.cache.ContextKey;
+import org.apache.sling.models.caconfig.impl.cache.ModelDependencies;
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notifies {@link ConfigurationChangeListener} services about configuration changes of their subscribed context
+ * paths. Change signals are matched against the subscriptions on a single notification thread, and delivered
+ * coalesced after the debounce interval of the first change.
+ */
+public final class ConfigurationChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationChangeNotifier.class);
+
+    private final ChangeStamps changeStamps;
+    private final ModelDependencies modelDependencies;
+    private final Function<String, ContextKey> contextKeyResolver;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile long debounceMillis;
+
+    /**
+     * @param changeStamps Change-stamps reported with the events
+     * @param modelDependencies Cached models reported with the events
+     * @param contextKeyResolver Resolves the context key of a context path, returns null if it does not exist
+     */
+    public ConfigurationChangeNotifier(
+            @NotNull ChangeStamps changeStamps,
+            @NotNull ModelDependencies modelDependencies,
+            @NotNull Function<String, ContextKey> contextKeyResolver) {
+        this.changeStamps = changeStamps;
+        this.modelDependencies = modelDependencies;
+        this.contextKeyResolver = contextKeyResolver;
+    }
+
+    /**
+     * Starts delivering notifications.
+     * @param executor Single-threaded executor for matching and delivering changes
+     * @param debounceMillis Debounce interval
+     */
+    public void start(@NotNull ScheduledExecutorService executor, long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Stops delivering notifications.
+     */
+    public void stop() {
+        executor = null;
+    }
+
+    /**
+     * @param listener Listener service
+     * @param properties Service properties
+     */
+    public void addListener(@NotNull ConfigurationChangeListener listener, @NotNull Map<String, Object> properties) {
+        String[] contextPaths = toStringArray(properties.get(ConfigurationChangeListener.CONTEXT_PATHS));
+        String[] configNames = toStringArray(properties.get(ConfigurationChangeListener.CONFIG_NAMES));
+        if (contextPaths.length == 0) {
+            log.warn(
+                    "Ignoring configuration change listener {} without {} property.",
+                    listener.getClass().getName(),
+                    ConfigurationChangeListener.CONTEXT_PATHS);
+            return;
+        }
+        for (String contextPath : contextPaths) {
+            subscriptions.add(new Subscription(listener, contextPath, configNames));
+        }
+    }
+
+    /**
+     * @param listener Listener service
+     */
+    public void removeListener(@NotNull ConfigurationChangeListener listener) {
+        subscriptions.removeIf(subscription -> subscription.getListener() == listener);
+    }
+
+    /**
+     * Signals a change of a configuration resource.
+     * @param path Changed configuration resource path
+     * @param fallback true if the path is located in a fallback path, affecting all context paths
+     */
+    public void configurationChanged(@NotNull String path, boolean fallback) {
+        submit(() -> {
+            for (Subscription subscription : subscriptions) {
+                if ((fallback || getContextKey(subscription).dependsOn(path))
+                        && subscription.collectConfigurationChange(path)) {
+                    schedule(subscription);
+                }
+            }
+        });
+    }
+
+    /**
+     * Signals a change of a content resource, which may change the context of subscribed context paths.
+     * @param path Changed content resource path
+     */
+    public void contextChanged(@NotNull String path) {
+        submit(() -> {
+            for (Subscription subscription : subscriptions) {
+                if (ContextKey.isSameOrDescendant(subscription.getContextPath(), path)) {
+                    // context path or configuration reference may have changed - resolve again
+                    subscription.setContextKey(null);
+                    subscription.collectAll();
+                    schedule(subscription);
+                }
+            }
+        });
+    }
+
+    private void submit(@NotNull Runnable task) {
+        ScheduledExecutorService currentExecutor = executor;
+        if (currentExecutor == null || subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            currentExecutor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Notification executor is shut down, ignoring configuration change.", ex);
+        }
+    }
+
+    private void schedule(@NotNull Subscription subscription) {
+        ScheduledExecutorService currentExecutor = executor;
+        if (currentExecutor != null && subscription.markScheduled()) {
+            currentExecutor.schedule(() -> deliver(subscription), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void deliver(@NotNull Subscription subscription) {
+        Set<String> configNames = subscription.drain();
+        if (configNames == null || !subscriptions.contains(subscription)) {
+            return;
+        }
+        ContextKey contextKey = getContextKey(subscription);
+        long stamp = changeStamps.getStamp(contextKey);
+        try {
+            subscription
+                    .getListener()
+                    .onChange(new ConfigurationChangeEventImpl(
+                            subscription.getContextPath(),
+                            configNames,
+                            modelDependencies.getModelClasses(contextKey, configNames),
+                            stamp));
+        } catch (RuntimeException ex) {
+            log.warn(
+                    "Configuration change listener {} failed for {}.",
+                    subscription.getListener().getClass().getName(),
+                    subscription.getContextPath(),
+                    ex);
+        }
+    }
+
+    private @NotNull ContextKey getContextKey(@NotNull Subscription subscription) {
+        ContextKey contextKey = subscription.getContextKey();
+        if (contextKey == null) {
+            contextKey = contextKeyResolver.apply(subscription.getContextPath());
+            if (contextKey == null) {
+                // context path does not exist (yet) - only fallback configurations apply
+                return ContextKey.NONE;
+            }
+            subscription.setContextKey(contextKey);
+        }
+        return contextKey;
+    }
+
+    private static @NotNull String[] toStringArray(@Nullable Object value) {
+        List<String> result = new ArrayList<>();
+        if (value instanceof String) {
+            result.add((String) value);
+        } else if (value instanceof String[]) {
+            for (String item : (String[]) value) {
+                result.add(item);
+            }
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                result.add(String.valueOf(item));
+            }
+        }
+        result.removeIf(StringUtils::isBlank);
+        return result.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.notification;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationPaths;
+import org.apache.sling.models.caconfig.impl.cache.ContextKey;
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Subscription of a listener to the configurations of one context path, collecting the changes of the current
+ * debounce interval. Only accessed from the notification thread.
+ */
+final class Subscription {
+
+    private final ConfigurationChangeListener listener;
+    private final String contextPath;
+    private final String[] configNames;
+
+    private ContextKey contextKey;
+    private final Set<String> pendingConfigNames = new LinkedHashSet<>();
+    private boolean pending;
+    private boolean scheduled;
+
+    Subscription(
+            @NotNull ConfigurationChangeListener listener, @NotNull String contextPath, @NotNull String[] configNames) {
+        this.listener = listener;
+        this.contextPath = contextPath;
+        this.configNames = configNames;
+    }
+
+    ConfigurationChangeListener getListener() {
+        return listener;
+    }
+
+    String getContextPath() {
+        return contextPath;
+    }
+
+    @Nullable
+    ContextKey getContextKey() {
+        return contextKey;
+    }
+
+    void setContextKey(@Nullable ContextKey contextKey) {
+        this.contextKey = contextKey;
+    }
+
+    /**
+     * Collects the subscribed configuration names affected by a change of the given configuration resource path.
+     * @param path Changed configuration resource path
+     * @return true if any subscribed configuration is affected
+     */
+    boolean collectConfigurationChange(@NotNull String path) {
+        if (configNames.length == 0) {
+            collectAll();
+            return true;
+        }
+        boolean affected = false;
+        for (String configName : configNames) {
+            if (ConfigurationPaths.affectsConfigName(path, configName)) {
+                pendingConfigNames.add(configName);
+                pending = true;
+                affected = true;
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Collects all subscribed configuration names.
+     */
+    void collectAll() {
+        Collections.addAll(pendingConfigNames, configNames);
+        pending = true;
+    }
+
+    /**
+     * @return true if a delivery has to be scheduled for the collected changes
+     */
+    boolean markScheduled() {
+        if (!pending || scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * @return Collected configuration names, or null if no changes were collected
+     */
+    @Nullable
+    Set<String> drain() {
+        scheduled = false;
+        if (!pending) {
+            return null;
+        }
+        pending = false;
+        Set<String> result = new LinkedHashSet<>(pendingConfigNames);
+        pendingConfigNames.clear();
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.tracing;
+
+import org.apache.sling.models.caconfig.tracing.InjectionSpan;
+import org.apache.sling.models.caconfig.tracing.InjectionTracer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tracer used if no tracer service is registered.
+ */
+public final class NoopInjectionTracer implements InjectionTracer {
+
+    public static final InjectionTracer INSTANCE = new NoopInjectionTracer();
+
+    private static final InjectionSpan NOOP_SPAN = new InjectionSpan() {
+        @Override
+        public void setAttribute(@NotNull String key, @NotNull Object value) {
+            // no-op
+        }
+
+        @Override
+        public void close() {
+            // no-op
+        }
+    };
+
+    private NoopInjectionTracer() {
+        // singleton
+    }
+
+    @Override
+    public @NotNull InjectionSpan startSpan(@NotNull String stage) {
+        return NOOP_SPAN;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.tracing;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.apache.sling.models.caconfig.tracing.InjectionSpan;
+import org.apache.sling.models.caconfig.tracing.InjectionTracer;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+
+/**
+ * Bridges injection spans to OpenTelemetry, using the globally registered OpenTelemetry instance.
+ * Spans are made current while open, so they become children of the span of the surrounding request.
+ * Requires an OSGi configuration to be activated, and is only enabled by
+ * {@link org.apache.sling.models.caconfig.impl.OptionalComponentsEnabler} if the optional OpenTelemetry API is available.
+ */
+@Component(service = InjectionTracer.class, configurationPolicy = ConfigurationPolicy.REQUIRE, enabled = false)
+public class OpenTelemetryInjectionTracer implements InjectionTracer {
+
+    static final String INSTRUMENTATION_SCOPE = "org.apache.sling.models.caconfig";
+
+    private Tracer tracer;
+
+    @Activate
+    void activate() {
+        tracer = GlobalOpenTelemetry.getTracer(INSTRUMENTATION_SCOPE);
+    }
+
+    @Override
+    public @NotNull InjectionSpan startSpan(@NotNull String stage) {
+        Span span = tracer.spanBuilder(stage).startSpan();
+        return new OpenTelemetrySpan(span, span.makeCurrent());
+    }
+
+    private static final class OpenTelemetrySpan implements InjectionSpan {
+
+        private final Span span;
+        private final Scope scope;
+
+        OpenTelemetrySpan(Span span, Scope scope) {
+            this.span = span;
+            this.scope = scope;
+        }
+
+        @Override
+        public void setAttribute(@NotNull String key, @NotNull Object value) {
+            if (value instanceof Boolean) {
+                span.setAttribute(key, (Boolean) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                span.setAttribute(key, ((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                span.setAttribute(key, ((Number) value).longValue());
+            } else {
+                span.setAttribute(key, value.toString());
+            }
+        }
+
+        @Override
+        public void close() {
+            scope.close();
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.listener;
+
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Tracks Sling Models with {@code @Model(cache = true)} that have context-aware configurations injected.
+ * <p>
+ * Sling Models keeps cached models per adaptable instance and cannot evict them, so a model cached for a
+ * long-living adaptable keeps its injected configuration after it was changed. Use {@link #isStale(Object, Class)}
+ * to detect this and adapt again from a freshly retrieved resource or request, which is not covered by the
+ * model cache. Only configurations injected into fields or methods of the model class are tracked.
+ * </p>
+ */
+@ProviderType
+public interface CachedModelTracker {
+
+    /**
+     * @param adaptable Adaptable the model was adapted from
+     * @param modelClass Model class
+     * @return true if configurations injected into the model cached for this adaptable have changed since
+     */
+    boolean isStale(@NotNull Object adaptable, @NotNull Class<?> modelClass);
+
+    /**
+     * @param modelClass Model class
+     * @return Names of the configurations injected into cached instances of the model class
+     */
+    @NotNull
+    Set<String> getConfigNames(@NotNull Class<?> modelClass);
+}
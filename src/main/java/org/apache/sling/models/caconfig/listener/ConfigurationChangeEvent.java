@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.listener;
+
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Coalesced change of the configurations of a context path.
+ */
+@ProviderType
+public interface ConfigurationChangeEvent {
+
+    /**
+     * @return Subscribed content path
+     */
+    @NotNull
+    String getContextPath();
+
+    /**
+     * @return Names of the subscribed configurations that have changed. Empty if the listener subscribed to
+     *     all configuration names.
+     */
+    @NotNull
+    Set<String> getConfigNames();
+
+    /**
+     * @return Classes of cached Sling Models with changed configurations of the context path injected. Instances
+     *     cached before the change are stale, see {@link CachedModelTracker}.
+     */
+    @NotNull
+    Set<Class<?>> getCachedModelClasses();
+
+    /**
+     * @return Change-stamp of the configurations of the context path after the change
+     */
+    long getStamp();
+}
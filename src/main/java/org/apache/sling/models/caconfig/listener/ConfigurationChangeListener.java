@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.listener;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * Listener service notified about changes of context-aware configurations of a context path.
+ * <p>
+ * Register implementations as OSGi service with the {@link #CONTEXT_PATHS} property, and optionally the
+ * {@link #CONFIG_NAMES} property. Changes are debounced and coalesced: the listener is notified at most once per
+ * debounce interval and context path, with all changes that happened within the interval.
+ * </p>
+ * <p>
+ * Notifications are based on resource change events, and are delivered asynchronously from a single notification
+ * thread, so implementations should return quickly.
+ * </p>
+ */
+@ConsumerType
+public interface ConfigurationChangeListener {
+
+    /**
+     * Service property with the content paths the listener subscribes to. Required.
+     */
+    String CONTEXT_PATHS = "caconfig.contextPaths";
+
+    /**
+     * Service property with the configuration names the listener subscribes to.
+     * Optional - if not set, the listener is notified about changes of any configuration.
+     */
+    String CONFIG_NAMES = "caconfig.configNames";
+
+    /**
+     * Called after configurations of a subscribed context path have changed.
+     * @param event Change event
+     */
+    void onChange(@NotNull ConfigurationChangeEvent event);
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.lookup;
+
+import java.util.Collection;
+
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Looks up context-aware configurations whose name is only known at runtime, e.g. derived from a component property.
+ * <p>
+ * Inject it with {@code @ContextAwareConfiguration} into a Sling Model. The lookup is bound to the resource
+ * detected for the adaptable and resolves its configuration context once, and all lookups go through the same
+ * configuration cache as injected configurations. The supported types are the same as for injection:
+ * configuration annotation classes, {@code ValueMap}, {@code ConfigurationView} and classes the configuration
+ * resource can be adapted to.
+ * </p>
+ */
+@ProviderType
+public interface ConfigurationLookup {
+
+    /**
+     * @return Resource the configurations are resolved for
+     */
+    @NotNull
+    Resource getResource();
+
+    /**
+     * @param type Configuration annotation class, the configuration name is derived from it
+     * @param <T> Type
+     * @return Configuration
+     */
+    @Nullable
+    <T> T get(@NotNull Class<T> type);
+
+    /**
+     * @param name Configuration name
+     * @param type Configuration annotation class, {@code ValueMap} or adapter type
+     * @param <T> Type
+     * @return Configuration, or null if the configuration resource cannot be adapted to the type
+     */
+    @Nullable
+    <T> T get(@NotNull String name, @NotNull Class<T> type);
+
+    /**
+     * @param type Configuration annotation class, the configuration name is derived from it
+     * @param <T> Type
+     * @return Configuration collection
+     */
+    @NotNull
+    <T> Collection<T> getCollection(@NotNull Class<T> type);
+
+    /**
+     * @param name Configuration name
+     * @param type Configuration annotation class, {@code ValueMap} or adapter type
+     * @param <T> Type
+     * @return Configuration collection
+     */
+    @NotNull
+    <T> Collection<T> getCollection(@NotNull String name, @NotNull Class<T> type);
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.tracing;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * Span of an injection stage, started by {@link InjectionTracer#startSpan(String)}.
+ */
+@ConsumerType
+public interface InjectionSpan extends AutoCloseable {
+
+    /**
+     * @param key Attribute name, one of the {@code ATTRIBUTE_*} constants of {@link InjectionTracer}
+     * @param value Attribute value - a string, number or boolean
+     */
+    void setAttribute(@NotNull String key, @NotNull Object value);
+
+    /**
+     * Ends the span.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.tracing;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * Receives a span for each stage of a context-aware configuration injection.
+ * <p>
+ * Register an implementation as OSGi service to trace injections - the service with the highest ranking is used.
+ * Without any service registered, tracing is disabled. Spans are started and closed on the injecting thread,
+ * stages of the same injection are nested (e.g. {@link #STAGE_RESOLVE} within {@link #STAGE_CACHE} on a cache miss).
+ * Implementations must be fast and thread-safe, as they are called for every injection.
+ * </p>
+ */
+@ConsumerType
+public interface InjectionTracer {
+
+    /**
+     * Detecting the resource of a request via the configuration inject resource detection strategies.
+     */
+    String STAGE_DETECT_RESOURCE = "caconfig.detectResource";
+
+    /**
+     * Looking up a configuration in the configuration cache, including its resolution on a cache miss.
+     */
+    String STAGE_CACHE = "caconfig.cache";
+
+    /**
+     * Resolving the configuration via the configuration resolver. As the configuration resolver resolves lazily,
+     * this includes creating the annotation class, value map or adapted object for configurations not served from
+     * the cache.
+     */
+    String STAGE_RESOLVE = "caconfig.resolve";
+
+    /**
+     * Materializing a cached configuration snapshot as annotation class, value map or view, or creating the snapshot
+     * of a resolved configuration on a cache miss.
+     */
+    String STAGE_MATERIALIZE = "caconfig.materialize";
+
+    /**
+     * Converting a configuration collection to the declared type of the injection point.
+     */
+    String STAGE_SHAPE = "caconfig.shape";
+
+    /**
+     * Configuration name, if known.
+     */
+    String ATTRIBUTE_CONFIG_NAME = "caconfig.configName";
+
+    /**
+     * Name of the class the configuration is materialized as.
+     */
+    String ATTRIBUTE_TARGET_TYPE = "caconfig.targetType";
+
+    /**
+     * Number of items of a configuration collection.
+     */
+    String ATTRIBUTE_COLLECTION_SIZE = "caconfig.collectionSize";
+
+    /**
+     * Whether a configuration was served from the cache.
+     */
+    String ATTRIBUTE_CACHE_HIT = "caconfig.cacheHit";
+
+    /**
+     * Path of the resource the configuration is resolved for.
+     */
+    String ATTRIBUTE_RESOURCE_PATH = "caconfig.resourcePath";
+
+    /**
+     * @param stage Stage name, one of the {@code STAGE_*} constants
+     * @return Started span, which is closed by the injector when the stage is finished
+     */
+    @NotNull
+    InjectionSpan startSpan(@NotNull String stage);
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracer keeping all finished spans in memory, e.g. for verifying injections in unit tests.
+ * Not intended for production use, as the recorded spans are never discarded.
+ */
+public final class RecordingInjectionTracer implements InjectionTracer {
+
+    private final List<RecordedSpan> spans = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<RecordedSpan> currentSpan = new ThreadLocal<>();
+
+    @Override
+    public @NotNull InjectionSpan startSpan(@NotNull String stage) {
+        RecordedSpan parent = currentSpan.get();
+        RecordedSpan span = new RecordedSpan(stage, parent);
+        currentSpan.set(span);
+        return span;
+    }
+
+    /**
+     * @return Finished spans, in the order they were closed
+     */
+    public @NotNull List<RecordedSpan> getSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * @param stage Stage name
+     * @return Finished spans of the given stage
+     */
+    public @NotNull List<RecordedSpan> getSpans(@NotNull String stage) {
+        List<RecordedSpan> result = new ArrayList<>();
+        for (RecordedSpan span : getSpans()) {
+            if (span.getStage().equals(stage)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all recorded spans.
+     */
+    public void clear() {
+        spans.clear();
+    }
+
+    /**
+     * Finished span.
+     */
+    public final class RecordedSpan implements InjectionSpan {
+
+        private final String stage;
+        private final RecordedSpan parent;
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private final long startNanos = System.nanoTime();
+        private long durationNanos = -1;
+
+        RecordedSpan(@NotNull String stage, @Nullable RecordedSpan parent) {
+            this.stage = stage;
+            this.parent = parent;
+        }
+
+        @Override
+        public void setAttribute(@NotNull String key, @NotNull Object value) {
+            attributes.put(key, value);
+        }
+
+        @Override
+        public void close() {
+            if (durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+            currentSpan.set(parent);
+            spans.add(this);
+        }
+
+        public @NotNull String getStage() {
+            return stage;
+        }
+
+        /**
+         * @return Enclosing span or null
+         */
+        public @Nullable RecordedSpan getParent() {
+            return parent;
+        }
+
+        public @NotNull Map<String, Object> getAttributes() {
+            return Collections.unmodifiableMap(attributes);
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return stage + attributes;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.view;
+
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Read-only view of a context-aware configuration with primitive property accessors.
+ * <p>
+ * Inject it with {@code @ContextAwareConfiguration(name = "...")} instead of a {@code ValueMap}, as single
+ * configuration or as configuration collection. Each property value is converted once per type on first access,
+ * so later calls of the accessors neither box nor run the type conversion again. The conversion rules are the
+ * same as for {@code ValueMap}: numbers and booleans are parsed from strings, a scalar accessor on an array property
+ * returns its first element and an array accessor on a scalar property returns an array with one element.
+ * </p>
+ */
+@ProviderType
+public interface ConfigurationView {
+
+    /**
+     * @return Names of all properties
+     */
+    @NotNull
+    Set<String> getPropertyNames();
+
+    /**
+     * @param name Property name
+     * @return true if the property exists
+     */
+    boolean contains(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @return String value, or null if the property does not exist
+     */
+    @Nullable
+    String getString(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @param defaultValue Default value
+     * @return String value, or the default value if the property does not exist
+     */
+    @NotNull
+    String getString(@NotNull String name, @NotNull String defaultValue);
+
+    /**
+     * @param name Property name
+     * @param defaultValue Default value
+     * @return Integer value, or the default value if the property does not exist or is not an integer
+     */
+    int getInt(@NotNull String name, int defaultValue);
+
+    /**
+     * @param name Property name
+     * @param defaultValue Default value
+     * @return Long value, or the default value if the property does not exist or is not a long
+     */
+    long getLong(@NotNull String name, long defaultValue);
+
+    /**
+     * @param name Property name
+     * @param defaultValue Default value
+     * @return Double value, or the default value if the property does not exist or is not a number
+     */
+    double getDouble(@NotNull String name, double defaultValue);
+
+    /**
+     * @param name Property name
+     * @param defaultValue Default value
+     * @return Boolean value, or the default value if the property does not exist
+     */
+    boolean getBoolean(@NotNull String name, boolean defaultValue);
+
+    /**
+     * @param name Property name
+     * @return String values, empty if the property does not exist
+     */
+    @NotNull
+    String[] getStringArray(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @return Integer values, empty if the property does not exist or one of the values is not an integer
+     */
+    @NotNull
+    int[] getIntArray(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @return Long values, empty if the property does not exist or one of the values is not a long
+     */
+    @NotNull
+    long[] getLongArray(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @return Double values, empty if the property does not exist or one of the values is not a number
+     */
+    @NotNull
+    double[] getDoubleArray(@NotNull String name);
+
+    /**
+     * @param name Property name
+     * @return Boolean values, empty if the property does not exist
+     */
+    @NotNull
+    boolean[] getBooleanArray(@NotNull String name);
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
 import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
 import org.apache.sling.models.caconfig.example.caconfig.ListConfig;
 import org.apache.sling.models.caconfig.example.testhelper.ListConfigGetter;
@@ -31,13 +32,13 @@ import org.apache.sling.models.caconfig.example.testhelper.ListConfigGetter;
 @Model(adaptables = {SlingHttpServletRequest.class, Resource.class})
 public class ListConfigModel implements ListConfigGetter<ListConfig> {
 
-    @ContextAwareConfiguration
+    @ContextAwareConfiguration(cacheScope = CacheScope.SHARED)
     private List<ListConfig> configList;
 
-    @ContextAwareConfiguration
+    @ContextAwareConfiguration(cacheScope = CacheScope.SHARED)
     private Collection<ListConfig> configCollection;
 
-    @ContextAwareConfiguration
+    @ContextAwareConfiguration(cacheScope = CacheScope.SHARED)
     private ListConfig[] configArray;
 
     @Override
@@ -25,19 +25,26 @@ import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ValueMap;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
 import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
 import org.apache.sling.models.caconfig.example.testhelper.ListConfigGetter;
 
 @Model(adaptables = {SlingHttpServletRequest.class, Resource.class})
 public class ListConfigValueMapModel implements ListConfigGetter<ValueMap> {
 
-    @ContextAwareConfiguration(name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
+    @ContextAwareConfiguration(
+            cacheScope = CacheScope.SHARED,
+            name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
     private List<ValueMap> configList;
 
-    @ContextAwareConfiguration(name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
+    @ContextAwareConfiguration(
+            cacheScope = CacheScope.SHARED,
+            name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
     private Collection<ValueMap> configCollection;
 
-    @ContextAwareConfiguration(name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
+    @ContextAwareConfiguration(
+            cacheScope = CacheScope.SHARED,
+            name = "org.apache.sling.models.caconfig.example.caconfig.ListConfig")
     private ValueMap[] configArray;
 
     @Override
@@ -22,6 +22,7 @@ import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
 import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
 import org.apache.sling.models.caconfig.example.caconfig.SingleConfig;
 import org.apache.sling.models.caconfig.example.testhelper.SingleConfigGetter;
@@ -29,7 +30,7 @@ import org.apache.sling.models.caconfig.example.testhelper.SingleConfigGetter;
 @Model(adaptables = {SlingHttpServletRequest.class, Resource.class, ResourceResolver.class})
 public class SingleConfigModel implements SingleConfigGetter<SingleConfig> {
 
-    @ContextAwareConfiguration
+    @ContextAwareConfiguration(cacheScope = CacheScope.SHARED)
     private SingleConfig config;
 
     @Override
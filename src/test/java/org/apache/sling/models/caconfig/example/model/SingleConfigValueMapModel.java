@@ -22,13 +22,14 @@ import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ValueMap;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.caconfig.annotations.CacheScope;
 import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
 import org.apache.sling.models.caconfig.example.testhelper.SingleConfigGetter;
 
 @Model(adaptables = {SlingHttpServletRequest.class, Resource.class})
 public class SingleConfigValueMapModel implements SingleConfigGetter<ValueMap> {
 
-    @ContextAwareConfiguration(name = "testSingleConfig")
+    @ContextAwareConfiguration(cacheScope = CacheScope.SHARED, name = "testSingleConfig")
     private ValueMap config;
 
     @Override
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.service.component.ComponentContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class OptionalComponentsEnablerTest {
+
+    private final List<String> enabledComponents = new ArrayList<>();
+
+    private final ComponentContext componentContext = (ComponentContext) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {ComponentContext.class}, (proxy, method, args) -> {
+                if ("enableComponent".equals(method.getName())) {
+                    enabledComponents.add((String) args[0]);
+                }
+                return null;
+            });
+
+    @Test
+    void testComponentNames() throws Exception {
+        for (String componentName : OptionalComponentsEnabler.OPTIONAL_COMPONENTS.keySet()) {
+            assertNotNull(Class.forName(componentName));
+        }
+    }
+
+    @Test
+    void testEnableAvailable() {
+        OptionalComponentsEnabler.enableAvailable(componentContext, getClass().getClassLoader());
+
+        assertEquals(new ArrayList<>(OptionalComponentsEnabler.OPTIONAL_COMPONENTS.keySet()), enabledComponents);
+    }
+
+    @Test
+    void testSkipUnavailable() {
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (name.startsWith("io.opentelemetry.")
+                        || name.startsWith("org.apache.sling.models.jacksonexporter.")) {
+                    throw new ClassNotFoundException(name);
+                }
+                return super.loadClass(name, resolve);
+            }
+        };
+
+        OptionalComponentsEnabler.enableAvailable(componentContext, classLoader);
+
+        assertEquals(1, enabledComponents.size());
+        assertEquals(
+                "org.apache.sling.models.caconfig.impl.injectors.InjectorInventoryPrinter", enabledComponents.get(0));
+    }
+}
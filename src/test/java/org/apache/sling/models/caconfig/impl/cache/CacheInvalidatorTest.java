@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheInvalidatorTest {
+
+    private static final CacheKey KEY1 = new CacheKey(ContextKey.NONE, "config1", false);
+    private static final CacheKey KEY2 = new CacheKey(ContextKey.NONE, "config2", false);
+    private static final CacheKey KEY3 = new CacheKey(ContextKey.NONE, "config3", false);
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    @Test
+    void testGetTopmostPaths() {
+        assertEquals(
+                ImmutableSet.of("/conf/a", "/conf/a-b"),
+                ImmutableSet.copyOf(CacheInvalidator.getTopmostPaths(ImmutableList.of(
+                        "/conf/a/sling:configs/x", "/conf/a-b", "/conf/a", "/conf/a/sling:configs", "/conf/a-b/c"))));
+        assertEquals(
+                ImmutableSet.of("/"),
+                ImmutableSet.copyOf(CacheInvalidator.getTopmostPaths(ImmutableList.of("/conf", "/"))));
+    }
+
+    @Test
+    void testInvalidate_Synchronous() {
+        ConfigurationCache cache = newCache();
+        CacheInvalidator underTest = new CacheInvalidator(cache, 10, null, 0);
+
+        underTest.invalidate(
+                Collections.emptyList(),
+                ImmutableList.of(
+                        "/conf/global/sling:configs/config1/item1",
+                        "/conf/global/sling:configs/config1/item2",
+                        "/conf/global/sling:configs/config1"));
+        assertEquals(2, cache.size());
+        assertEquals(1, underTest.getPasses());
+        assertEquals(3, underTest.getChangedPaths());
+    }
+
+    @Test
+    void testInvalidate_Threshold() {
+        ConfigurationCache cache = newCache();
+        CacheInvalidator underTest = new CacheInvalidator(cache, 1, null, 0);
+
+        underTest.invalidate(
+                Collections.emptyList(),
+                ImmutableList.of("/conf/global/sling:configs/config4", "/conf/global/sling:configs/config5"));
+        assertEquals(0, cache.size());
+        assertEquals(1, underTest.getFullInvalidations());
+    }
+
+    @Test
+    void testInvalidate_Window() {
+        ConfigurationCache cache = newCache();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CacheInvalidator underTest = new CacheInvalidator(cache, 10, executor, 60000);
+
+            underTest.invalidate(Collections.emptyList(), ImmutableList.of("/conf/global/sling:configs/config1"));
+            underTest.invalidate(Collections.emptyList(), ImmutableList.of("/conf/global/sling:configs/config2"));
+            assertEquals(3, cache.size());
+            assertEquals(0, underTest.getPasses());
+
+            // changes of both batches are invalidated in one pass
+            underTest.flush();
+            assertEquals(1, cache.size());
+            assertEquals(1, underTest.getPasses());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ConfigurationCache newCache() {
+        ConfigurationCache cache = new ConfigurationCache(
+                new CacheSettings().maxEntries(10), (key, resourcePath) -> "v", pendingTasks::add);
+        cache.get(KEY1, "/content/path", () -> "v1");
+        cache.get(KEY2, "/content/path", () -> "v2");
+        cache.get(KEY3, "/content/path", () -> "v3");
+        return cache;
+    }
+}
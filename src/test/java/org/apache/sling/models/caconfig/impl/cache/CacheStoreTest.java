@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheStoreTest {
+
+    private static final Object VALUE = ImmutableMap.of("stringParam", "value1", "intParam", 5);
+    private static final long VALUE_WEIGHT = WeightEstimator.estimate(VALUE);
+
+    @Test
+    void testPutGetRemove() {
+        CacheStore underTest = new CacheStore(Long.MAX_VALUE, 100, 0, entry -> {});
+        CacheEntry entry = entry("config1", "site1");
+        underTest.put(entry);
+        assertEquals(entry, underTest.get(entry.key));
+        assertEquals(1, underTest.size());
+        assertEquals(VALUE_WEIGHT, underTest.weight());
+
+        assertTrue(underTest.remove(entry));
+        assertNull(underTest.get(entry.key));
+        assertEquals(0, underTest.size());
+        assertEquals(0, underTest.weight());
+    }
+
+    @Test
+    void testReplace() {
+        CacheStore underTest = new CacheStore(Long.MAX_VALUE, 100, 0, entry -> {});
+        underTest.put(entry("config1", "site1"));
+        underTest.put(entry("config1", "site1"));
+        assertEquals(1, underTest.size());
+        assertEquals(VALUE_WEIGHT, underTest.weight());
+    }
+
+    @Test
+    void testMaxWeight() {
+        CacheStore underTest = new CacheStore(VALUE_WEIGHT * 10, 100, 0, entry -> {});
+        for (int i = 0; i < 20; i++) {
+            underTest.put(entry("config" + i, "site1"));
+        }
+        assertEquals(10, underTest.size());
+        assertEquals(VALUE_WEIGHT * 10, underTest.weight());
+        assertEquals(10, underTest.evictionCount());
+    }
+
+    @Test
+    void testMaxEntries_LeastRecentlyUsed() {
+        // all segments are sampled on eviction
+        CacheStore underTest = new CacheStore(CacheStore.EVICTION_SAMPLE_SEGMENTS, Long.MAX_VALUE, 10, 0, entry -> {});
+        List<CacheEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CacheEntry entry = entry("config" + i, "site1");
+            entries.add(entry);
+            underTest.put(entry);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(underTest.get(entries.get(i).key));
+        }
+        for (int i = 10; i < 15; i++) {
+            underTest.put(entry("config" + i, "site1"));
+        }
+
+        // the least recently used entries are evicted, independent of their lock stripe
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i < 5, underTest.get(entries.get(i).key) != null, "config" + i);
+        }
+    }
+
+    @Test
+    void testPartitionQuota() {
+        CacheStore underTest = new CacheStore(Long.MAX_VALUE, 100, VALUE_WEIGHT * 2, entry -> {});
+        CacheEntry site2Entry = entry("config1", "site2");
+        underTest.put(site2Entry);
+        for (int i = 0; i < 10; i++) {
+            underTest.put(entry("config" + i, "site1"));
+        }
+        // site1 only evicts its own entries
+        assertEquals(VALUE_WEIGHT * 2, underTest.partitionWeight("site1"));
+        assertNotNull(underTest.get(site2Entry.key));
+        assertEquals(3, underTest.size());
+    }
+
+    @Test
+    void testMaxEntries_SampledSegments() {
+        CacheStore underTest = new CacheStore(64, Long.MAX_VALUE, 10, 0, entry -> {});
+        for (int i = 0; i < 100; i++) {
+            underTest.put(entry("config" + i, "site1"));
+        }
+        assertEquals(10, underTest.size());
+        assertEquals(90, underTest.evictionCount());
+    }
+
+    @Test
+    void testPartitionRemovedWhenEmpty() {
+        CacheStore underTest = new CacheStore(Long.MAX_VALUE, 100, 0, entry -> {});
+        CacheEntry entry1 = entry("config1", "site1");
+        CacheEntry entry2 = entry("config2", "site1");
+        underTest.put(entry1);
+        underTest.put(entry2);
+        assertEquals(1, underTest.partitionCount());
+
+        underTest.remove(entry1);
+        assertEquals(VALUE_WEIGHT, underTest.partitionWeight("site1"));
+        underTest.remove(entry2);
+        assertEquals(0, underTest.partitionWeight("site1"));
+        assertEquals(0, underTest.partitionCount());
+    }
+
+    @Test
+    void testClear() {
+        CacheStore underTest = new CacheStore(Long.MAX_VALUE, 100, 0, entry -> {});
+        for (int i = 0; i < 10; i++) {
+            underTest.put(entry("config" + i, "site1"));
+        }
+        underTest.clear();
+        assertEquals(0, underTest.size());
+        assertEquals(0, underTest.weight());
+        assertEquals(0, underTest.partitionWeight("site1"));
+        assertEquals(0, underTest.partitionCount());
+    }
+
+    private static CacheEntry entry(String configName, String partition) {
+        CacheKey key = new CacheKey(ContextKey.NONE, partition + "/" + configName, false);
+        return new CacheEntry(key, partition, "/content/" + partition, VALUE);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.caconfig.resource.spi.ContextResource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeStampsTest {
+
+    @Test
+    void testGetStamp_Bounded() {
+        ChangeStamps underTest = new ChangeStamps(100, 8);
+        ContextKey site = contextKey("/content/site", "/conf/site");
+        assertEquals(100, underTest.getStamp(site));
+
+        underTest.configurationChanged("/conf/site/sling:configs/config1");
+        long stamp = underTest.getStamp(site);
+        assertEquals(101, stamp);
+
+        for (int i = 0; i < 20; i++) {
+            underTest.getStamp(contextKey("/content/site" + i, "/conf/site" + i));
+            assertTrue(underTest.size() <= 16);
+        }
+
+        // evicted paths are registered again with the current clock value, so the stamp never decreases
+        assertTrue(underTest.getStamp(site) >= stamp);
+    }
+
+    private static ContextKey contextKey(String contextPath, String configRef) {
+        return ContextKey.of(
+                ImmutableList.of(new ContextResource(new SyntheticResource(null, contextPath, null), configRef, 0))
+                        .iterator());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarValueMapCollectionTest {
+
+    private static final List<Map<String, Object>> ITEMS = ImmutableList.of(
+            ImmutableMap.<String, Object>of(
+                    "stringParam", "item1", "intParam", 1, "boolParam", true, "arrayParam", new String[] {"a"}),
+            ImmutableMap.<String, Object>of("stringParam", "item2", "intParam", 2, "longParam", 5L),
+            ImmutableMap.<String, Object>of("stringParam", "item3", "boolParam", false, "mixedParam", 1.5d));
+
+    @Test
+    void testValues() {
+        ColumnarValueMapCollection underTest = new ColumnarValueMapCollection(ITEMS);
+        assertEquals(3, underTest.size());
+
+        ValueMap item1 = underTest.get(0);
+        assertEquals("item1", item1.get("stringParam"));
+        assertEquals(1, item1.get("intParam"));
+        assertEquals(true, item1.get("boolParam"));
+        assertArrayEquals(new String[] {"a"}, item1.get("arrayParam", String[].class));
+        assertNull(item1.get("longParam"));
+        assertFalse(item1.containsKey("longParam"));
+
+        ValueMap item2 = underTest.get(1);
+        assertEquals(5L, item2.get("longParam"));
+        assertFalse(item2.containsKey("boolParam"));
+
+        ValueMap item3 = underTest.get(2);
+        assertEquals(false, item3.get("boolParam"));
+        assertEquals(0, item3.get("intParam", 0));
+        assertEquals(1.5d, item3.get("mixedParam"));
+    }
+
+    @Test
+    void testConversion() {
+        ValueMap item = new ColumnarValueMapCollection(ITEMS).get(1);
+        assertEquals("2", item.get("intParam", String.class));
+        assertEquals(2L, item.get("intParam", Long.class));
+        assertEquals("default", item.get("missingParam", "default"));
+    }
+
+    @Test
+    void testMapEquality() {
+        ColumnarValueMapCollection underTest = new ColumnarValueMapCollection(ITEMS);
+        assertEquals(new ValueMapDecorator(ITEMS.get(1)), underTest.get(1));
+        assertEquals(ITEMS.get(1).keySet(), underTest.get(1).keySet());
+        assertEquals(ITEMS.get(1).hashCode(), underTest.get(1).hashCode());
+    }
+
+    @Test
+    void testReadOnly() {
+        ValueMap item = new ColumnarValueMapCollection(ITEMS).get(0);
+        assertThrows(UnsupportedOperationException.class, () -> item.put("stringParam", "other"));
+        assertTrue(item.containsKey("stringParam"));
+    }
+
+    @Test
+    void testArraysCopiedOnRead() {
+        ValueMap item = new ColumnarValueMapCollection(ITEMS).get(0);
+        ((String[]) item.get("arrayParam"))[0] = "x";
+        item.get("arrayParam", String[].class)[0] = "x";
+        for (Map.Entry<String, Object> entry : item.entrySet()) {
+            if (entry.getValue() instanceof String[]) {
+                ((String[]) entry.getValue())[0] = "x";
+            }
+        }
+        assertArrayEquals(new String[] {"a"}, item.get("arrayParam", String[].class));
+    }
+
+    @Test
+    void testEstimateWeight() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(ImmutableMap.<String, Object>of("stringParam", "item" + i, "intParam", i, "boolParam", true));
+        }
+        ColumnarValueMapCollection underTest = new ColumnarValueMapCollection(items);
+        assertTrue(underTest.estimateWeight() < WeightEstimator.estimate(items) / 2);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigurationCacheTest {
+
+    private static final CacheKey KEY1 = new CacheKey(ContextKey.NONE, "config1", false);
+    private static final CacheKey KEY2 = new CacheKey(ContextKey.NONE, "config2", false);
+
+    private final AtomicInteger version = new AtomicInteger(1);
+    private final AtomicInteger reloadCount = new AtomicInteger();
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private Runnable onReload = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        version.set(1);
+    }
+
+    @Test
+    void testGet() {
+        ConfigurationCache underTest = newCache(10, false);
+        assertEquals("v1", get(underTest, KEY1));
+        version.set(2);
+        assertEquals("v1", get(underTest, KEY1));
+        assertEquals("v2", get(underTest, KEY2));
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    void testContains() {
+        ConfigurationCache underTest = newCache(10, false);
+        assertFalse(underTest.contains(KEY1, -1));
+        get(underTest, KEY1);
+        assertTrue(underTest.contains(KEY1, -1));
+        assertFalse(underTest.contains(KEY1, 0));
+        assertFalse(underTest.contains(KEY2, -1));
+
+        // checking does not count as access
+        assertEquals(0, underTest.getStatistics().getHotHits());
+    }
+
+    @Test
+    void testMaxEntries() {
+        ConfigurationCache underTest = newCache(1, false);
+        get(underTest, KEY1);
+        get(underTest, KEY2);
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    void testSoftReferenceTier() {
+        ConfigurationCache underTest =
+                newCache(new CacheSettings().maxEntries(1).softReferences(true).promotionThreshold(2));
+        assertEquals("v1", get(underTest, KEY1));
+        version.set(2);
+        assertEquals("v2", get(underTest, KEY2));
+
+        // KEY1 was demoted to the cold tier, and is promoted back on second access
+        CacheStatistics stats = underTest.getStatistics();
+        assertEquals(1, stats.getHotSize());
+        assertEquals(1, stats.getColdSize());
+        assertEquals(1, stats.getDemotions());
+
+        assertEquals("v1", get(underTest, KEY1));
+        assertEquals(0, underTest.getStatistics().getPromotions());
+        assertEquals("v1", get(underTest, KEY1));
+
+        stats = underTest.getStatistics();
+        assertEquals(2, stats.getColdHits());
+        assertEquals(1, stats.getPromotions());
+        assertEquals(2, stats.getDemotions());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    void testSoftReferenceTier_ExceedsMaxWeight() {
+        ConfigurationCache underTest = newCache(new CacheSettings().maxWeight(1).softReferences(true));
+        assertEquals("v1", get(underTest, KEY1));
+
+        // the entry is demoted to the cold tier on insertion
+        CacheStatistics stats = underTest.getStatistics();
+        assertEquals(0, stats.getHotSize());
+        assertEquals(1, stats.getColdSize());
+        assertTrue(underTest.contains(KEY1, -1));
+
+        // replacing it keeps the new entry in the cold tier as well
+        version.set(2);
+        underTest.invalidateAll();
+        assertEquals("v2", get(underTest, KEY1));
+        assertEquals(1, underTest.getStatistics().getColdSize());
+        assertEquals("v2", get(underTest, KEY1));
+        assertEquals(2, underTest.getStatistics().getMisses());
+    }
+
+    @Test
+    void testSoftReferenceTier_Invalidate() {
+        ConfigurationCache underTest =
+                newCache(new CacheSettings().maxEntries(1).softReferences(true));
+        get(underTest, KEY1);
+        get(underTest, KEY2);
+        version.set(2);
+        underTest.invalidateAll();
+        assertEquals(0, underTest.size());
+        assertEquals("v2", get(underTest, KEY1));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        ConfigurationCache underTest = newCache(10, false);
+        assertEquals("v1", get(underTest, KEY1));
+        version.set(2);
+        underTest.invalidateAll();
+        assertEquals(0, underTest.size());
+        assertEquals("v2", get(underTest, KEY1));
+    }
+
+    @Test
+    void testInvalidateFallback_ConfigName() {
+        ConfigurationCache underTest = newCache(10, false);
+        get(underTest, KEY1);
+        get(underTest, KEY2);
+
+        // collection item of config1 changed - config2 is kept
+        underTest.invalidateFallback("/conf/global/sling:configs/config1/item1");
+        assertEquals(1, underTest.size());
+        underTest.invalidateFallback("/conf/global/sling:configs/config3");
+        assertEquals(1, underTest.size());
+
+        // bucket removed - all configurations affected
+        underTest.invalidateFallback("/conf/global/sling:configs");
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    void testStaleWhileRevalidate() {
+        ConfigurationCache underTest = newCache(10, true);
+        assertEquals("v1", get(underTest, KEY1));
+        version.set(2);
+        underTest.invalidateAll();
+        assertEquals(1, underTest.staleSize());
+
+        // stale value is served, only one refresh is scheduled
+        assertEquals("v1", get(underTest, KEY1));
+        assertEquals("v1", get(underTest, KEY1));
+        assertEquals(1, pendingTasks.size());
+
+        pendingTasks.remove(0).run();
+        assertEquals(1, reloadCount.get());
+        assertEquals(0, underTest.staleSize());
+        assertEquals("v2", get(underTest, KEY1));
+    }
+
+    @Test
+    void testStaleWhileRevalidate_InvalidatedDuringRefresh() {
+        ConfigurationCache underTest = newCache(10, true);
+        get(underTest, KEY1);
+        underTest.invalidateAll();
+        get(underTest, KEY1);
+
+        // invalidation while refresh is running keeps the entry stale
+        onReload = underTest::invalidateAll;
+        pendingTasks.remove(0).run();
+        assertEquals(1, underTest.staleSize());
+    }
+
+    @Test
+    void testStaleWhileRevalidate_InvalidatedDuringRefresh_MaxStaleness() throws Exception {
+        ConfigurationCache underTest = newCache(
+                new CacheSettings().maxEntries(10).staleWhileRevalidate(true).maxStalenessMillis(50));
+        get(underTest, KEY1);
+        underTest.invalidateAll();
+        get(underTest, KEY1);
+        Thread.sleep(60);
+
+        // the refreshed entry keeps the original stale time, so it exceeded the maximum staleness
+        onReload = underTest::invalidateAll;
+        pendingTasks.remove(0).run();
+        onReload = () -> {};
+        version.set(2);
+        assertEquals("v2", get(underTest, KEY1));
+        assertEquals(0, underTest.staleSize());
+    }
+
+    private ConfigurationCache newCache(int maxEntries, boolean staleWhileRevalidate) {
+        return newCache(new CacheSettings()
+                .maxEntries(maxEntries)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .maxStalenessMillis(60000));
+    }
+
+    private ConfigurationCache newCache(CacheSettings settings) {
+        return new ConfigurationCache(
+                settings,
+                (key, resourcePath) -> {
+                    reloadCount.incrementAndGet();
+                    onReload.run();
+                    return "v" + version.get();
+                },
+                pendingTasks::add);
+    }
+
+    private Object get(ConfigurationCache cache, CacheKey key) {
+        return cache.get(key, "/content/path", () -> "v" + version.get());
+    }
+}
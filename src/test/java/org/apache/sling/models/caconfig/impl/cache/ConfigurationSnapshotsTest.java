@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigurationSnapshotsTest {
+
+    @Test
+    void testSnapshot_Shared() {
+        ValueMap snapshot1 = ConfigurationSnapshots.snapshot(
+                ImmutableMap.<String, Object>of("stringParam", "value1", "arrayParam", new String[] {"a", "b"}));
+        ValueMap snapshot2 = ConfigurationSnapshots.snapshot(
+                ImmutableMap.<String, Object>of("stringParam", "value1", "arrayParam", new String[] {"a", "b"}));
+        ValueMap snapshot3 = ConfigurationSnapshots.snapshot(
+                ImmutableMap.<String, Object>of("stringParam", "value2", "arrayParam", new String[] {"a", "b"}));
+
+        assertSame(snapshot1, snapshot2);
+        assertNotSame(snapshot1, snapshot3);
+        assertEquals("value2", snapshot3.get("stringParam", String.class));
+
+        // string values are shared across snapshots with different content
+        assertSame(snapshot1.get("arrayParam", String[].class)[0], snapshot3.get("arrayParam", String[].class)[0]);
+    }
+
+    @Test
+    void testSnapshot_ArraysCopiedOnRead() {
+        ValueMap snapshot1 =
+                ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>of("arrayParam", new String[] {"a", "b"}));
+        ValueMap snapshot2 =
+                ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>of("arrayParam", new String[] {"a", "b"}));
+        assertSame(snapshot1, snapshot2);
+
+        // modifying a returned array does not affect the shared snapshot
+        ((String[]) snapshot1.get("arrayParam"))[0] = "x";
+        snapshot1.get("arrayParam", String[].class)[0] = "x";
+        ((String[]) snapshot1.values().iterator().next())[0] = "x";
+        ((String[]) snapshot1.entrySet().iterator().next().getValue())[0] = "x";
+        assertArrayEquals(new String[] {"a", "b"}, snapshot2.get("arrayParam", String[].class));
+    }
+
+    @Test
+    void testSnapshot_DatesCopiedOnRead() {
+        Calendar calendar = new GregorianCalendar(2024, Calendar.JANUARY, 1);
+        ValueMap snapshot1 = ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>of(
+                "calendarParam",
+                calendar.clone(),
+                "dateParam",
+                calendar.getTime(),
+                "calendarArrayParam",
+                new Calendar[] {(Calendar) calendar.clone()}));
+        ValueMap snapshot2 = ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>of(
+                "calendarParam",
+                calendar.clone(),
+                "dateParam",
+                calendar.getTime(),
+                "calendarArrayParam",
+                new Calendar[] {(Calendar) calendar.clone()}));
+        assertSame(snapshot1, snapshot2);
+
+        // modifying a returned calendar or date does not affect the shared snapshot
+        snapshot1.get("calendarParam", Calendar.class).setTimeInMillis(0);
+        ((Calendar) snapshot1.get("calendarParam")).setTimeInMillis(0);
+        ((Date) snapshot1.get("dateParam")).setTime(0);
+        snapshot1.get("calendarArrayParam", Calendar[].class)[0].setTimeInMillis(0);
+        for (Object value : snapshot1.values()) {
+            if (value instanceof Date) {
+                ((Date) value).setTime(0);
+            }
+        }
+        assertEquals(calendar, snapshot2.get("calendarParam", Calendar.class));
+        assertEquals(calendar.getTime(), snapshot2.get("dateParam", Date.class));
+        assertEquals(calendar, snapshot2.get("calendarArrayParam", Calendar[].class)[0]);
+    }
+
+    @Test
+    void testSnapshotCollection_DatesCopiedOnRead() {
+        Calendar calendar = new GregorianCalendar(2024, Calendar.JANUARY, 1);
+        List<ValueMap> snapshot = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("calendarParam", calendar.clone())),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("calendarParam", calendar.clone()))));
+
+        ((Calendar) snapshot.get(0).get("calendarParam")).setTimeInMillis(0);
+        snapshot.get(1).get("calendarParam", Calendar.class).setTimeInMillis(0);
+        assertEquals(calendar, snapshot.get(0).get("calendarParam", Calendar.class));
+        assertEquals(calendar, snapshot.get(1).get("calendarParam", Calendar.class));
+    }
+
+    @Test
+    void testSnapshotCollection_Shared() {
+        List<ValueMap> snapshot1 = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item1", "intParam", 1)),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2"))));
+        List<ValueMap> snapshot2 = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("intParam", 1, "stringParam", "item1")),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2"))));
+        List<ValueMap> snapshot3 = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2")),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item1", "intParam", 1))));
+
+        assertSame(snapshot1, snapshot2);
+        assertNotSame(snapshot1, snapshot3);
+        assertEquals("item1", snapshot3.get(1).get("stringParam", String.class));
+    }
+
+    @Test
+    void testSnapshotCollection_ChangedItem() {
+        List<ValueMap> snapshot1 = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item1", "intParam", 1)),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2", "intParam", 2))));
+        List<ValueMap> snapshot2 = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item1", "intParam", 1)),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2", "intParam", 3))));
+
+        assertNotSame(snapshot1, snapshot2);
+        assertEquals(2, snapshot1.get(1).get("intParam", Integer.class));
+        assertEquals(3, snapshot2.get(1).get("intParam", Integer.class));
+        assertEquals(snapshot1.get(0), snapshot2.get(0));
+    }
+
+    @Test
+    void testView() {
+        ValueMap snapshot = ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>builder()
+                .put("stringParam", "value1")
+                .put("intParam", 5)
+                .put("numberStringParam", "42")
+                .put("boolParam", true)
+                .put("arrayParam", new String[] {"1", "x", "3"})
+                .put("numberArrayParam", new String[] {"1", "3"})
+                .build());
+        ConfigurationView view = ConfigurationSnapshots.view(snapshot);
+
+        assertTrue(view.contains("intParam"));
+        assertFalse(view.contains("otherParam"));
+        assertEquals("value1", view.getString("stringParam"));
+        assertEquals("default", view.getString("otherParam", "default"));
+        assertEquals(5, view.getInt("intParam", 0));
+        assertEquals(5L, view.getLong("intParam", 0L));
+        assertEquals(5d, view.getDouble("intParam", 0d));
+        assertEquals(42, view.getInt("numberStringParam", 0));
+        assertEquals(-1, view.getInt("stringParam", -1));
+        assertTrue(view.getBoolean("boolParam", false));
+        assertTrue(view.getBoolean("otherParam", true));
+
+        assertArrayEquals(new String[] {"1", "x", "3"}, view.getStringArray("arrayParam"));
+        assertEquals(0, view.getIntArray("arrayParam").length);
+        assertArrayEquals(new int[] {1, 3}, view.getIntArray("numberArrayParam"));
+        assertArrayEquals(new int[] {5}, view.getIntArray("intParam"));
+        assertEquals(0, view.getLongArray("otherParam").length);
+        assertEquals(1, view.getInt("arrayParam", 0));
+
+        // returned arrays are copies
+        view.getStringArray("arrayParam")[0] = "changed";
+        assertEquals("1", view.getStringArray("arrayParam")[0]);
+    }
+
+    @Test
+    void testView_ConvertedOnFirstAccess() {
+        AtomicInteger conversions = new AtomicInteger();
+        ValueMap values =
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("intParam", 5, "stringParam", "value1")) {
+                    @Override
+                    public <T> T get(String name, Class<T> type) {
+                        conversions.incrementAndGet();
+                        return super.get(name, type);
+                    }
+                };
+        ConfigurationView view = new ConfigurationViewImpl(values);
+        assertEquals(0, conversions.get());
+
+        assertEquals(5, view.getInt("intParam", 0));
+        assertEquals(5, view.getInt("intParam", 0));
+        assertEquals(1, conversions.get());
+        assertEquals(0, view.getInt("stringParam", 0));
+        assertEquals(0, view.getInt("stringParam", 0));
+        assertEquals(2, conversions.get());
+        assertEquals("5", view.getString("intParam"));
+        assertEquals(3, conversions.get());
+    }
+
+    @Test
+    void testView_Shared() {
+        ValueMap snapshot = ConfigurationSnapshots.snapshot(ImmutableMap.<String, Object>of("stringParam", "value1"));
+        assertSame(ConfigurationSnapshots.view(snapshot), ConfigurationSnapshots.view(snapshot));
+
+        List<ValueMap> collection = ConfigurationSnapshots.snapshot(ImmutableList.<ValueMap>of(
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item1", "intParam", 1)),
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("stringParam", "item2"))));
+        List<ConfigurationView> views = ConfigurationSnapshots.views(collection);
+        assertSame(views, ConfigurationSnapshots.views(collection));
+        assertEquals(2, views.size());
+        assertEquals(1, views.get(0).getInt("intParam", 0));
+        assertEquals(0, views.get(1).getInt("intParam", 0));
+        assertEquals("item2", views.get(1).getString("stringParam"));
+    }
+}
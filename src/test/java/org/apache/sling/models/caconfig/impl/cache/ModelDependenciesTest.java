@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.caconfig.resource.spi.ContextResource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelDependenciesTest {
+
+    private static final ContextKey CONTEXT_KEY = ContextKey.of(
+            ImmutableList.of(new ContextResource(new SyntheticResource(null, "/content/site", null), "/conf/site", 0))
+                    .iterator());
+
+    private static final ContextKey OTHER_CONTEXT_KEY = ContextKey.of(ImmutableList.of(
+                    new ContextResource(new SyntheticResource(null, "/content/othersite", null), "/conf/othersite", 0))
+            .iterator());
+
+    private final ChangeStamps changeStamps = new ChangeStamps();
+    private final ModelDependencies underTest = new ModelDependencies(changeStamps);
+
+    @Test
+    void testRecord_Reinjected() {
+        Object adaptable = new Object();
+        underTest.record(adaptable, String.class, CONTEXT_KEY, "config1");
+        assertFalse(underTest.isStale(adaptable, String.class));
+
+        changeStamps.configurationChanged("/conf/site/sling:configs/config1");
+        assertTrue(underTest.isStale(adaptable, String.class));
+
+        // a model created again for the same adaptable replaces the recorded injection
+        underTest.record(adaptable, String.class, CONTEXT_KEY, "config2");
+        assertFalse(underTest.isStale(adaptable, String.class));
+        assertEquals(ImmutableSet.of("config1", "config2"), underTest.getConfigNames(String.class));
+    }
+
+    @Test
+    void testGetModelClasses_Context() {
+        underTest.record(new Object(), String.class, CONTEXT_KEY, "config1");
+        underTest.record(new Object(), Integer.class, OTHER_CONTEXT_KEY, "config1");
+
+        assertEquals(ImmutableSet.of(String.class), underTest.getModelClasses(CONTEXT_KEY, ImmutableSet.of()));
+        assertEquals(
+                ImmutableSet.of(Integer.class),
+                underTest.getModelClasses(OTHER_CONTEXT_KEY, ImmutableSet.of("config1")));
+        assertEquals(ImmutableSet.of(), underTest.getModelClasses(CONTEXT_KEY, ImmutableSet.of("config2")));
+        assertEquals(ImmutableSet.of(), underTest.getModelClasses(ContextKey.NONE, ImmutableSet.of()));
+    }
+}
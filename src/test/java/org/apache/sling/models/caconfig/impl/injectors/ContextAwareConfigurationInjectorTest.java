@@ -18,32 +18,64 @@
  */
 package org.apache.sling.models.caconfig.impl.injectors;
 
+import java.lang.reflect.Field;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.adapter.Adaptable;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.api.wrappers.ResourceResolverWrapper;
 import org.apache.sling.caconfig.management.multiplexer.ConfigurationInjectResourceDetectionStrategyMultiplexer;
 import org.apache.sling.caconfig.spi.ConfigurationInjectResourceDetectionStrategy;
+import org.apache.sling.models.caconfig.annotations.ContextAwareConfiguration;
 import org.apache.sling.models.caconfig.example.caconfig.ListConfig;
 import org.apache.sling.models.caconfig.example.caconfig.SingleConfig;
 import org.apache.sling.models.caconfig.example.caconfig.model.ConfigurationValuesModel;
 import org.apache.sling.models.caconfig.example.invalidmodel.InvalidAnnotationListModel;
 import org.apache.sling.models.caconfig.example.invalidmodel.InvalidAnnotationModel;
+import org.apache.sling.models.caconfig.example.invalidmodel.InvalidAsyncModel;
+import org.apache.sling.models.caconfig.example.invalidmodel.InvalidCachePolicyModel;
 import org.apache.sling.models.caconfig.example.invalidmodel.InvalidInjectModel;
+import org.apache.sling.models.caconfig.example.invalidmodel.InvalidLookupModel;
 import org.apache.sling.models.caconfig.example.invalidmodel.InvalidSetModel;
+import org.apache.sling.models.caconfig.example.model.AsyncConfigModel;
+import org.apache.sling.models.caconfig.example.model.CachePolicyModel;
+import org.apache.sling.models.caconfig.example.model.ConfigurationLookupModel;
 import org.apache.sling.models.caconfig.example.model.ListConfigAdaptModel;
 import org.apache.sling.models.caconfig.example.model.ListConfigModel;
 import org.apache.sling.models.caconfig.example.model.ListConfigValueMapModel;
+import org.apache.sling.models.caconfig.example.model.ListConfigViewModel;
 import org.apache.sling.models.caconfig.example.model.SingleConfigAdaptModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigCachedModel;
 import org.apache.sling.models.caconfig.example.model.SingleConfigModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigStampModel;
 import org.apache.sling.models.caconfig.example.model.SingleConfigValueMapModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigViewModel;
 import org.apache.sling.models.caconfig.example.testhelper.ListConfigGetter;
 import org.apache.sling.models.caconfig.example.testhelper.SingleConfigGetter;
+import org.apache.sling.models.caconfig.impl.cache.CacheStatistics;
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeEvent;
+import org.apache.sling.models.caconfig.listener.ConfigurationChangeListener;
+import org.apache.sling.models.caconfig.lookup.ConfigurationLookup;
+import org.apache.sling.models.caconfig.tracing.InjectionTracer;
+import org.apache.sling.models.caconfig.tracing.RecordingInjectionTracer;
+import org.apache.sling.models.caconfig.tracing.RecordingInjectionTracer.RecordedSpan;
+import org.apache.sling.models.caconfig.view.ConfigurationView;
+import org.apache.sling.models.factory.ModelFactory;
 import org.apache.sling.testing.mock.caconfig.MockContextAwareConfig;
 import org.apache.sling.testing.mock.sling.junit5.SlingContext;
 import org.apache.sling.testing.mock.sling.junit5.SlingContextBuilder;
@@ -57,8 +89,11 @@ import org.osgi.framework.Constants;
 
 import static org.apache.sling.testing.mock.caconfig.ContextPlugins.CACONFIG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SlingContextExtension.class)
 class ContextAwareConfigurationInjectorTest {
@@ -151,6 +186,17 @@ class ContextAwareConfigurationInjectorTest {
                 map -> map.get("stringParam", String.class));
     }
 
+    @Test
+    void testSingleConfigViewModel_Request() {
+        assertSingleConfig(SingleConfigViewModel.class, context.request(), view -> view.getString("stringParam"));
+    }
+
+    @Test
+    void testSingleConfigViewModel_Resource() {
+        assertSingleConfig(
+                SingleConfigViewModel.class, context.currentResource(), view -> view.getString("stringParam"));
+    }
+
     @Test
     void testSingleConfigAdaptModel_Request() {
         assertSingleConfig(SingleConfigAdaptModel.class, context.request(), ConfigurationValuesModel::getStringParam);
@@ -183,6 +229,11 @@ class ContextAwareConfigurationInjectorTest {
                 ListConfigValueMapModel.class, context.currentResource(), map -> map.get("stringParam", String.class));
     }
 
+    @Test
+    void testListConfigViewModel_Request() {
+        assertListConfig(ListConfigViewModel.class, context.request(), view -> view.getString("stringParam"));
+    }
+
     @Test
     void testListConfigAdaptModel_Request() {
         assertListConfig(ListConfigAdaptModel.class, context.request(), ConfigurationValuesModel::getStringParam);
@@ -194,18 +245,522 @@ class ContextAwareConfigurationInjectorTest {
                 ListConfigAdaptModel.class, context.currentResource(), ConfigurationValuesModel::getStringParam);
     }
 
+    @Test
+    void testSingleConfigModel_Cached() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+        assertSingleConfigValue(
+                SingleConfigModel.class, context.currentResource(), SingleConfig::stringParam, "value1");
+
+        CacheStatistics stats = injector.getCacheStatistics();
+        assertNotNull(stats);
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHotHits());
+    }
+
+    @Test
+    void testSingleConfigModel_Cached_ServiceUser() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        ResourceResolver resourceResolver = new NoConfigAccessResourceResolver(
+                context.resourceResolver(), new AtomicInteger(), new AtomicInteger());
+        Resource resource =
+                resourceResolver.getResource(context.currentResource().getPath());
+        assertNotNull(resource);
+
+        // the shared cache is filled with the service user, not with the permissions of the first injection
+        assertSingleConfigValue(SingleConfigModel.class, resource, SingleConfig::stringParam, "value1");
+        assertSingleConfigValue(
+                SingleConfigModel.class, context.currentResource(), SingleConfig::stringParam, "value1");
+    }
+
+    @Test
+    void testSingleConfigValueMapModel_Cached() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertSingleConfigValue(
+                SingleConfigValueMapModel.class,
+                context.request(),
+                map -> map.get("stringParam", String.class),
+                "value1");
+    }
+
+    @Test
+    void testListConfigModel_Cached() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertListConfigValues(ListConfigModel.class, context.request(), ListConfig::stringParam);
+        assertListConfigValues(
+                ListConfigValueMapModel.class, context.request(), map -> map.get("stringParam", String.class));
+        assertListConfigValues(ListConfigViewModel.class, context.request(), view -> view.getString("stringParam"));
+    }
+
+    @Test
+    void testSingleConfigViewModel_Cached() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        SingleConfigViewModel model1 = context.request().adaptTo(SingleConfigViewModel.class);
+        SingleConfigViewModel model2 = context.currentResource().adaptTo(SingleConfigViewModel.class);
+        assertNotNull(model1);
+        assertNotNull(model2);
+        assertEquals("value1", model1.getConfig().getString("stringParam"));
+        assertEquals(5, model1.getConfig().getInt("intParam", 0));
+        // values are converted once per cached configuration
+        assertSame(model1.getConfig(), model2.getConfig());
+    }
+
+    @Test
+    void testSingleConfigModel_Cached_Invalidation() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+
+        // cached value is served until the configuration change is signaled
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/testSingleConfig")));
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value2");
+    }
+
+    @Test
+    void testSingleConfigModel_Cached_Invalidation_OtherContext() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        injector.onChange(ImmutableList.of(configChange("/conf/region/othersite/sling:configs/testSingleConfig")));
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/otherConfig")));
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+
+        injector.onChange(ImmutableList.of(configChange("/conf/global/sling:configs/testSingleConfig")));
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value2");
+    }
+
+    @Test
+    void testSingleConfigModel_Cached_StaleWhileRevalidate() {
+        ContextAwareConfigurationInjector injector = context.registerInjectActivateService(
+                ContextAwareConfigurationInjector.class,
+                "cache.enabled",
+                true,
+                "cache.staleWhileRevalidate",
+                true,
+                "cache.maxStalenessSeconds",
+                0);
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+
+        // stale value exceeding max. staleness is re-resolved synchronously
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/testSingleConfig")));
+        await(() -> assertSingleConfigValue(
+                SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value2"));
+    }
+
+    @Test
+    void testConfigurationLookupModel() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        assertConfigurationLookup(context.request());
+        assertConfigurationLookup(context.currentResource());
+    }
+
+    @Test
+    void testConfigurationLookupModel_Cached() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertConfigurationLookup(context.request());
+        assertConfigurationLookup(context.currentResource());
+
+        // single config is looked up by class and by name, list config as annotation and value map collection
+        CacheStatistics stats = injector.getCacheStatistics();
+        assertNotNull(stats);
+        assertEquals(2, stats.getMisses());
+        assertEquals(6, stats.getHotHits());
+    }
+
+    @SuppressWarnings("null")
+    private void assertConfigurationLookup(Adaptable adaptable) {
+        ConfigurationLookupModel model = adaptable.adaptTo(ConfigurationLookupModel.class);
+        assertNotNull(model);
+        ConfigurationLookup lookup = model.getLookup();
+        assertNotNull(lookup);
+        assertEquals(context.currentResource().getPath(), lookup.getResource().getPath());
+
+        assertEquals("value1", lookup.get(SingleConfig.class).stringParam());
+        assertEquals("value1", lookup.get("testSingleConfig", ValueMap.class).get("stringParam", String.class));
+        assertEquals(
+                ImmutableList.of("item1", "item2"),
+                lookup.getCollection(ListConfig.class).stream()
+                        .map(ListConfig::stringParam)
+                        .collect(Collectors.toList()));
+        assertEquals(
+                ImmutableList.of("item1", "item2"),
+                lookup.getCollection(ListConfig.class.getName(), ValueMap.class).stream()
+                        .map(map -> map.get("stringParam", String.class))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testCachePolicyModel() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        CachePolicyModel model = createCachePolicyModel();
+        assertEquals("value1", model.getUncachedConfig().stringParam());
+        assertEquals("value1", model.getRequestConfig().stringParam());
+        assertEquals("value1", model.getFreshConfig().stringParam());
+
+        // change configuration without invalidating the shared cache
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        model = createCachePolicyModel();
+        assertEquals("value2", model.getUncachedConfig().stringParam());
+        assertEquals("value1", model.getRequestConfig().stringParam());
+        assertEquals("value2", model.getFreshConfig().stringParam());
+
+        // only the fresh config uses the shared cache, and resolves again on each injection
+        CacheStatistics stats = injector.getCacheStatistics();
+        assertNotNull(stats);
+        assertEquals(2, stats.getMisses());
+
+        // a configuration change discards the request cache
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/testSingleConfig")));
+        assertEquals("value2", createCachePolicyModel().getRequestConfig().stringParam());
+    }
+
+    @Test
+    void testCachePolicyModel_ResourceAdaptable() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        ModelFactory modelFactory = context.getService(ModelFactory.class);
+        assertNotNull(modelFactory);
+        modelFactory.createModel(context.currentResource(), CachePolicyModel.class);
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        CachePolicyModel model = modelFactory.createModel(context.currentResource(), CachePolicyModel.class);
+
+        // there is no request to hold the request cache
+        assertEquals("value2", model.getRequestConfig().stringParam());
+    }
+
+    @Test
+    void testCachePolicyModel_CacheDisabled() {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        createCachePolicyModel();
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        CachePolicyModel model = createCachePolicyModel();
+
+        // request scope does not depend on the shared cache
+        assertEquals("value1", model.getRequestConfig().stringParam());
+        assertEquals("value2", model.getUncachedConfig().stringParam());
+    }
+
+    @Test
+    void testAsyncConfigModel() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        AsyncConfigModel model = createAsyncConfigModel();
+        assertAsyncConfig(model);
+    }
+
+    @Test
+    void testAsyncConfigModel_Cached() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        assertAsyncConfig(createAsyncConfigModel());
+
+        // configurations served from the cache are completed on injection
+        AsyncConfigModel model = createAsyncConfigModel();
+        assertTrue(model.getConfig().toCompletableFuture().isDone());
+        assertTrue(model.getConfigList().isDone());
+        assertTrue(model.getConfigViews().toCompletableFuture().isDone());
+        assertAsyncConfig(model);
+    }
+
+    @Test
+    void testAsyncConfigModel_ClonedResourceResolver() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        AtomicInteger clones = new AtomicInteger();
+        AtomicInteger closedClones = new AtomicInteger();
+        ResourceResolver resourceResolver =
+                new NoConfigAccessResourceResolver(context.resourceResolver(), clones, closedClones);
+        Resource resource =
+                resourceResolver.getResource(context.currentResource().getPath());
+        assertNotNull(resource);
+        ModelFactory modelFactory = context.getService(ModelFactory.class);
+        assertNotNull(modelFactory);
+        AsyncConfigModel model = modelFactory.createModel(resource, AsyncConfigModel.class);
+
+        // configurations are resolved with the permissions of the injecting resource resolver
+        SingleConfig config = model.getConfig().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertNull(config.stringParam());
+        assertEquals(5, config.intParam());
+        assertTrue(model.getConfigList().get(10, TimeUnit.SECONDS).isEmpty());
+        assertEquals(0, model.getConfigViews().toCompletableFuture().get(10, TimeUnit.SECONDS).length);
+        assertEquals(3, clones.get());
+        assertEquals(3, closedClones.get());
+    }
+
+    /**
+     * Resource resolver without read access to the configuration resources, supporting clones.
+     */
+    private static final class NoConfigAccessResourceResolver extends ResourceResolverWrapper {
+
+        private final ResourceResolver delegate;
+        private final AtomicInteger clones;
+        private final AtomicInteger closedClones;
+        private final boolean clone;
+
+        NoConfigAccessResourceResolver(ResourceResolver delegate, AtomicInteger clones, AtomicInteger closedClones) {
+            this(delegate, clones, closedClones, false);
+        }
+
+        private NoConfigAccessResourceResolver(
+                ResourceResolver delegate, AtomicInteger clones, AtomicInteger closedClones, boolean clone) {
+            super(delegate);
+            this.delegate = delegate;
+            this.clones = clones;
+            this.closedClones = closedClones;
+            this.clone = clone;
+        }
+
+        @Override
+        public Resource getResource(String path) {
+            return filter(super.getResource(path));
+        }
+
+        @Override
+        public Resource getResource(Resource base, String path) {
+            return filter(super.getResource(base, path));
+        }
+
+        private static Resource filter(Resource resource) {
+            return resource != null && resource.getPath().startsWith("/conf") ? null : resource;
+        }
+
+        @Override
+        public ResourceResolver clone(Map<String, Object> authenticationInfo) {
+            clones.incrementAndGet();
+            return new NoConfigAccessResourceResolver(delegate, clones, closedClones, true);
+        }
+
+        @Override
+        public void close() {
+            // the delegate is the resource resolver of the test context
+            if (clone) {
+                closedClones.incrementAndGet();
+            }
+        }
+    }
+
+    private void assertAsyncConfig(AsyncConfigModel model) throws Exception {
+        SingleConfig config = model.getConfig().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertEquals("value1", config.stringParam());
+        List<ListConfig> configList = model.getConfigList().get(10, TimeUnit.SECONDS);
+        assertEquals(2, configList.size());
+        assertEquals("item1", configList.get(0).stringParam());
+        ConfigurationView[] configViews =
+                model.getConfigViews().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertEquals(2, configViews.length);
+        assertEquals("item2", configViews[1].getString("stringParam"));
+    }
+
+    private AsyncConfigModel createAsyncConfigModel() {
+        ModelFactory modelFactory = context.getService(ModelFactory.class);
+        assertNotNull(modelFactory);
+        return modelFactory.createModel(context.currentResource(), AsyncConfigModel.class);
+    }
+
+    private CachePolicyModel createCachePolicyModel() {
+        ModelFactory modelFactory = context.getService(ModelFactory.class);
+        assertNotNull(modelFactory);
+        return modelFactory.createModel(context.request(), CachePolicyModel.class);
+    }
+
+    @Test
+    void testSingleConfigStampModel() {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        long stamp = getStamp();
+        assertEquals(stamp, getStamp());
+
+        // changes of other contexts do not affect the stamp
+        injector.onChange(ImmutableList.of(configChange("/conf/region/othersite/sling:configs/testSingleConfig")));
+        injector.onChange(ImmutableList.of(configChange("/content/region/othersite")));
+        assertEquals(stamp, getStamp());
+
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/testSingleConfig")));
+        long configStamp = getStamp();
+        assertTrue(configStamp > stamp);
+
+        injector.onChange(ImmutableList.of(configChange("/content/region/site")));
+        long contextStamp = getStamp();
+        assertTrue(contextStamp > configStamp);
+
+        injector.onChange(ImmutableList.of(configChange("/conf/global/sling:configs/testSingleConfig")));
+        assertTrue(getStamp() > contextStamp);
+    }
+
+    @Test
+    void testTracing() {
+        RecordingInjectionTracer tracer = new RecordingInjectionTracer();
+        context.registerService(InjectionTracer.class, tracer);
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+
+        assertListConfigValues(ListConfigModel.class, context.request(), ListConfig::stringParam);
+        // list, collection and array field
+        assertEquals(3, tracer.getSpans(InjectionTracer.STAGE_DETECT_RESOURCE).size());
+        // uncached configurations are materialized by the configuration resolver within the resolve stage
+        List<RecordedSpan> resolve = tracer.getSpans(InjectionTracer.STAGE_RESOLVE);
+        assertEquals(3, resolve.size());
+        assertEquals(
+                ListConfig.class.getName(), resolve.get(0).getAttributes().get(InjectionTracer.ATTRIBUTE_TARGET_TYPE));
+        assertEquals(2, resolve.get(0).getAttributes().get(InjectionTracer.ATTRIBUTE_COLLECTION_SIZE));
+        assertTrue(tracer.getSpans(InjectionTracer.STAGE_MATERIALIZE).isEmpty());
+        assertEquals(2, tracer.getSpans(InjectionTracer.STAGE_SHAPE).size());
+        assertTrue(tracer.getSpans(InjectionTracer.STAGE_CACHE).isEmpty());
+    }
+
+    @Test
+    void testTracing_Cached() {
+        RecordingInjectionTracer tracer = new RecordingInjectionTracer();
+        context.registerService(InjectionTracer.class, tracer);
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+
+        assertSingleConfigValue(SingleConfigModel.class, context.request(), SingleConfig::stringParam, "value1");
+        assertSingleConfigValue(
+                SingleConfigModel.class, context.currentResource(), SingleConfig::stringParam, "value1");
+
+        List<RecordedSpan> cache = tracer.getSpans(InjectionTracer.STAGE_CACHE);
+        assertEquals(2, cache.size());
+        assertEquals(false, cache.get(0).getAttributes().get(InjectionTracer.ATTRIBUTE_CACHE_HIT));
+        assertEquals(true, cache.get(1).getAttributes().get(InjectionTracer.ATTRIBUTE_CACHE_HIT));
+        assertEquals("testSingleConfig", cache.get(0).getAttributes().get(InjectionTracer.ATTRIBUTE_CONFIG_NAME));
+
+        // resolution is nested in the cache lookup on the cache miss only
+        List<RecordedSpan> resolve = tracer.getSpans(InjectionTracer.STAGE_RESOLVE);
+        assertEquals(1, resolve.size());
+        assertEquals(cache.get(0), resolve.get(0).getParent());
+        assertEquals(1, tracer.getSpans(InjectionTracer.STAGE_DETECT_RESOURCE).size());
+    }
+
+    @Test
+    void testConfigurationChangeListener() {
+        ContextAwareConfigurationInjector injector = context.registerInjectActivateService(
+                ContextAwareConfigurationInjector.class, "notification.debounceMillis", 100);
+        List<ConfigurationChangeEvent> events = new CopyOnWriteArrayList<>();
+        context.registerService(
+                ConfigurationChangeListener.class,
+                events::add,
+                ConfigurationChangeListener.CONTEXT_PATHS,
+                "/content/region/site/en",
+                ConfigurationChangeListener.CONFIG_NAMES,
+                new String[] {"testSingleConfig", "otherConfig"});
+
+        // changes within the debounce interval are coalesced, changes of other contexts and configs are ignored
+        injector.onChange(ImmutableList.of(
+                configChange("/conf/region/site/sling:configs/testSingleConfig"),
+                configChange("/conf/region/site/sling:configs/testSingleConfig/subnode"),
+                configChange("/conf/region/site/sling:configs/" + ListConfig.class.getName()),
+                configChange("/conf/region/othersite/sling:configs/otherConfig")));
+        await(() -> assertEquals(1, events.size()));
+
+        ConfigurationChangeEvent event = events.get(0);
+        assertEquals("/content/region/site/en", event.getContextPath());
+        assertEquals(ImmutableSet.of("testSingleConfig"), event.getConfigNames());
+        assertEquals(getStamp(), event.getStamp());
+
+        injector.onChange(ImmutableList.of(configChange("/conf/global/sling:configs/otherConfig")));
+        await(() -> assertEquals(2, events.size()));
+        assertEquals(ImmutableSet.of("otherConfig"), events.get(1).getConfigNames());
+    }
+
+    @Test
+    void testCachedModelTracker() {
+        ContextAwareConfigurationInjector injector = context.registerInjectActivateService(
+                ContextAwareConfigurationInjector.class, "notification.debounceMillis", 0);
+        List<ConfigurationChangeEvent> events = new CopyOnWriteArrayList<>();
+        context.registerService(
+                ConfigurationChangeListener.class,
+                events::add,
+                ConfigurationChangeListener.CONTEXT_PATHS,
+                "/content/region/site/en");
+
+        Resource resource = context.currentResource();
+        assertSingleConfigValue(SingleConfigCachedModel.class, resource, SingleConfig::stringParam, "value1");
+        assertEquals(ImmutableSet.of("testSingleConfig"), injector.getConfigNames(SingleConfigCachedModel.class));
+        assertFalse(injector.isStale(resource, SingleConfigCachedModel.class));
+
+        // the cached model keeps the old value until adapted from a fresh resource
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value2");
+        injector.onChange(ImmutableList.of(configChange("/conf/region/site/sling:configs/testSingleConfig")));
+        assertTrue(injector.isStale(resource, SingleConfigCachedModel.class));
+        assertSingleConfigValue(SingleConfigCachedModel.class, resource, SingleConfig::stringParam, "value1");
+
+        Resource freshResource = context.resourceResolver().getResource(resource.getPath());
+        assertSingleConfigValue(SingleConfigCachedModel.class, freshResource, SingleConfig::stringParam, "value2");
+        assertFalse(injector.isStale(freshResource, SingleConfigCachedModel.class));
+
+        await(() -> assertEquals(1, events.size()));
+        assertEquals(
+                ImmutableSet.of(SingleConfigCachedModel.class), events.get(0).getCachedModelClasses());
+    }
+
+    private long getStamp() {
+        SingleConfigStampModel model = context.request().adaptTo(SingleConfigStampModel.class);
+        assertNotNull(model);
+        assertEquals("value1", model.getConfig().stringParam());
+        return model.getStamp();
+    }
+
+    private static ResourceChange configChange(String path) {
+        return new ResourceChange(ChangeType.CHANGED, path, false);
+    }
+
+    private static void await(Runnable assertion) {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError ex) {
+                if (System.currentTimeMillis() > timeout) {
+                    throw ex;
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException iex) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
     private <T> void assertSingleConfig(
             Class<? extends SingleConfigGetter<T>> modelClass, Adaptable adaptable, Function<T, String> extractor) {
         context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        assertSingleConfigValue(modelClass, adaptable, extractor, "value1");
+    }
+
+    private <T> void assertSingleConfigValue(
+            Class<? extends SingleConfigGetter<T>> modelClass,
+            Adaptable adaptable,
+            Function<T, String> extractor,
+            String expectedValue) {
         SingleConfigGetter<T> model = adaptable.adaptTo(modelClass);
         assertNotNull(model);
         T config = model.getConfig();
-        assertEquals("value1", extractor.apply(config));
+        assertEquals(expectedValue, extractor.apply(config));
     }
 
     private <T> void assertListConfig(
             Class<? extends ListConfigGetter<T>> modelClass, Adaptable adaptable, Function<T, String> extractor) {
         context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        assertListConfigValues(modelClass, adaptable, extractor);
+    }
+
+    private <T> void assertListConfigValues(
+            Class<? extends ListConfigGetter<T>> modelClass, Adaptable adaptable, Function<T, String> extractor) {
         ListConfigGetter<T> model = adaptable.adaptTo(modelClass);
         assertNotNull(model);
         assertListValues(model.getConfigList(), extractor);
@@ -222,9 +777,18 @@ class ContextAwareConfigurationInjectorTest {
 
     @Test
     void testInvalid_SingleConfigModel_ResourceResolver() {
-        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
         SingleConfigModel model = context.resourceResolver().adaptTo(SingleConfigModel.class);
         assertNull(model);
+        model = context.resourceResolver().adaptTo(SingleConfigModel.class);
+        assertNull(model);
+
+        List<InjectionDiagnostics.Summary> summaries = injector.getDiagnostics().getSummaries();
+        assertEquals(1, summaries.size());
+        assertEquals(
+                SingleConfigModel.class.getName() + "#config", summaries.get(0).getLocation());
+        assertEquals(2, summaries.get(0).getCount());
     }
 
     @Test
@@ -251,6 +815,31 @@ class ContextAwareConfigurationInjectorTest {
         assertNull(model);
     }
 
+    @Test
+    void testInjectionPointValidation() throws NoSuchFieldException {
+        ContextAwareConfigurationInjector injector =
+                context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        assertTrue(isSupported(injector, SingleConfigModel.class.getDeclaredField("config")));
+        assertTrue(isSupported(injector, SingleConfigStampModel.class.getDeclaredField("stamp")));
+        assertFalse(isSupported(injector, InvalidSetModel.class.getDeclaredField("configList")));
+        assertFalse(isSupported(injector, InvalidAnnotationModel.class.getDeclaredField("config")));
+        assertFalse(isSupported(injector, InvalidAnnotationListModel.class.getDeclaredField("configList")));
+        assertTrue(isSupported(injector, ConfigurationLookupModel.class.getDeclaredField("lookup")));
+        assertFalse(isSupported(injector, InvalidLookupModel.class.getDeclaredField("lookup")));
+        assertFalse(isSupported(injector, InvalidLookupModel.class.getDeclaredField("lookupList")));
+        assertTrue(isSupported(injector, CachePolicyModel.class.getDeclaredField("freshConfig")));
+        assertFalse(isSupported(injector, InvalidCachePolicyModel.class.getDeclaredField("config")));
+        assertTrue(isSupported(injector, AsyncConfigModel.class.getDeclaredField("configList")));
+        assertFalse(isSupported(injector, InvalidAsyncModel.class.getDeclaredField("adaptable")));
+        assertFalse(isSupported(injector, InvalidAsyncModel.class.getDeclaredField("lookup")));
+    }
+
+    private static boolean isSupported(ContextAwareConfigurationInjector injector, Field field) {
+        assertNotNull(injector.createAnnotationProcessor(field));
+        return injector.isSupported(
+                field, field.getAnnotation(ContextAwareConfiguration.class), field.getGenericType());
+    }
+
     @Test
     @SuppressWarnings("null")
     void testInvalidSetModel() {
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InjectionDiagnosticsTest {
+
+    @Test
+    void testReport() {
+        InjectionDiagnostics underTest = new InjectionDiagnostics(2);
+        for (int i = 1; i <= 5; i++) {
+            int occurrence = i;
+            underTest.report("Model#field", "reason1", () -> "message" + occurrence);
+        }
+        underTest.report("Model#field", "reason2", () -> "other message");
+
+        List<InjectionDiagnostics.Summary> summaries = underTest.getSummaries();
+        assertEquals(2, summaries.size());
+        InjectionDiagnostics.Summary summary = getSummary(summaries, "reason1");
+        assertEquals(5, summary.getCount());
+        assertEquals(ImmutableList.of("message1", "message2"), summary.getSamples());
+
+        // totals are kept after flush, samples are cleared and taken again in the next interval
+        underTest.flush();
+        underTest.report("Model#field", "reason1", () -> "message6");
+        summary = getSummary(underTest.getSummaries(), "reason1");
+        assertEquals(6, summary.getCount());
+        assertEquals(ImmutableList.of("message6"), summary.getSamples());
+    }
+
+    private static InjectionDiagnostics.Summary getSummary(
+            List<InjectionDiagnostics.Summary> summaries, String reason) {
+        return summaries.stream()
+                .filter(summary -> summary.getReason().equals(reason))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+}
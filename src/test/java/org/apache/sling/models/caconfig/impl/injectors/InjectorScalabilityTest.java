@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.models.caconfig.example.caconfig.ListConfig;
+import org.apache.sling.models.caconfig.example.caconfig.SingleConfig;
+import org.apache.sling.models.caconfig.example.model.ListConfigModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigModel;
+import org.apache.sling.models.caconfig.impl.metrics.LatencyHistogram;
+import org.apache.sling.models.factory.ModelFactory;
+import org.apache.sling.testing.mock.caconfig.MockContextAwareConfig;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextBuilder;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.apache.sling.testing.mock.caconfig.ContextPlugins.CACONFIG;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness measuring injection throughput and tail latency from 1 to N concurrent threads, and failing if
+ * the scaling efficiency drops below a threshold. Disabled by default, run it with
+ * <pre>mvn test -Dtest=InjectorScalabilityTest -Dcaconfig.loadtest=true</pre>
+ * Optional system properties:
+ * <ul>
+ * <li>{@code caconfig.loadtest.maxThreads}: Maximum number of threads, defaults to the number of processors</li>
+ * <li>{@code caconfig.loadtest.durationMillis}: Measurement duration per thread count, defaults to 2000</li>
+ * <li>{@code caconfig.loadtest.minEfficiency}: Minimum scaling efficiency (throughput relative to linear scaling
+ * of the single-threaded throughput, up to the number of processors), defaults to 0.5</li>
+ * </ul>
+ * On JDKs supporting virtual threads an additional round runs the maximum number of tasks on virtual threads.
+ */
+@EnabledIfSystemProperty(named = "caconfig.loadtest", matches = "true")
+@ExtendWith(SlingContextExtension.class)
+class InjectorScalabilityTest {
+
+    private static final int MAX_THREADS = Integer.getInteger(
+            "caconfig.loadtest.maxThreads", Runtime.getRuntime().availableProcessors());
+    private static final long DURATION_MILLIS = Long.getLong("caconfig.loadtest.durationMillis", 2000);
+    private static final double MIN_EFFICIENCY =
+            Double.parseDouble(System.getProperty("caconfig.loadtest.minEfficiency", "0.5"));
+
+    private static final int CONTEXTS = 50;
+
+    private final SlingContext context =
+            new SlingContextBuilder().plugin(CACONFIG).build();
+
+    private final List<String> paths = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockContextAwareConfig.registerAnnotationPackages(context, "org.apache.sling.models.caconfig.example.caconfig");
+        context.addModelsForPackage("org.apache.sling.models.caconfig.example.model");
+
+        for (int i = 0; i < CONTEXTS; i++) {
+            String contextPath = "/content/site" + i;
+            context.create().resource(contextPath, "sling:configRef", "/conf/site" + i);
+            paths.add(context.create().resource(contextPath + "/en/page").getPath());
+            MockContextAwareConfig.writeConfiguration(
+                    context, contextPath, SingleConfig.class, "stringParam", "value" + i);
+            MockContextAwareConfig.writeConfigurationCollection(
+                    context,
+                    contextPath,
+                    ListConfig.class,
+                    ImmutableList.of(
+                            ImmutableMap.<String, Object>of("stringParam", "item1"),
+                            ImmutableMap.<String, Object>of("stringParam", "item2")));
+        }
+    }
+
+    @Test
+    void testScalability_Uncached() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class);
+        run("uncached");
+    }
+
+    @Test
+    void testScalability_Cached() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        run("cached");
+    }
+
+    private void run(String name) throws Exception {
+        // warm up
+        measure(Executors.newFixedThreadPool(MAX_THREADS), MAX_THREADS);
+
+        System.out.println("Injector scalability (" + name + "), " + CONTEXTS + " contexts, "
+                + Runtime.getRuntime().availableProcessors() + " processors:");
+        System.out.println(String.format(
+                Locale.ENGLISH, "%10s %14s %10s %10s %10s", "Threads", "Ops/s", "p50 [us]", "p99 [us]", "Efficiency"));
+        Result single = null;
+        List<String> failures = new ArrayList<>();
+        for (int threads = 1; threads <= MAX_THREADS; threads = nextThreadCount(threads)) {
+            Result result = measure(Executors.newFixedThreadPool(threads), threads);
+            if (single == null) {
+                single = result;
+            }
+            double efficiency = result.throughput / (single.throughput * getParallelism(threads));
+            print(Integer.toString(threads), result, efficiency);
+            if (efficiency < MIN_EFFICIENCY) {
+                failures.add(threads + " threads: " + String.format(Locale.ENGLISH, "%.2f", efficiency));
+            }
+        }
+
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads != null) {
+            Result result = measure(virtualThreads, MAX_THREADS);
+            print(
+                    MAX_THREADS + " virtual",
+                    result,
+                    result.throughput / (single.throughput * getParallelism(MAX_THREADS)));
+        }
+
+        assertTrue(
+                failures.isEmpty(),
+                "Scaling efficiency below " + MIN_EFFICIENCY + " for " + String.join(", ", failures));
+    }
+
+    /**
+     * More threads than processors cannot scale beyond the number of processors.
+     */
+    private static int getParallelism(int threads) {
+        return Math.min(threads, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static int nextThreadCount(int threads) {
+        if (threads < MAX_THREADS && threads * 2 > MAX_THREADS) {
+            return MAX_THREADS;
+        }
+        return threads * 2;
+    }
+
+    private Result measure(ExecutorService executor, int threads) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder operations = new LongAdder();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long[] deadline = new long[1];
+        try {
+            for (int i = 0; i < threads; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    ResourceResolver resourceResolver = context.resourceResolver();
+                    // the mocked adapter manager is bound to the test thread, so models are created directly
+                    ModelFactory modelFactory = context.getService(ModelFactory.class);
+                    int index = offset;
+                    while (System.nanoTime() < deadline[0]) {
+                        long start = System.nanoTime();
+                        Resource resource = resourceResolver.getResource(paths.get(index++ % paths.size()));
+                        assertNotNull(modelFactory.createModel(resource, SingleConfigModel.class));
+                        assertNotNull(modelFactory.createModel(resource, ListConfigModel.class));
+                        latency.record(System.nanoTime() - start);
+                        operations.increment();
+                    }
+                    return null;
+                }));
+            }
+            long start = System.nanoTime();
+            deadline[0] = start + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(operations.sum() / seconds, latency);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void print(String threads, Result result, double efficiency) {
+        System.out.println(String.format(
+                Locale.ENGLISH,
+                "%10s %14.0f %10d %10d %10.2f",
+                threads,
+                result.throughput,
+                TimeUnit.NANOSECONDS.toMicros(result.latency.getPercentileNanos(0.5)),
+                TimeUnit.NANOSECONDS.toMicros(result.latency.getPercentileNanos(0.99)),
+                efficiency));
+    }
+
+    /**
+     * Creates an executor for virtual threads via reflection, as the project is compiled for Java 8.
+     * @return Executor or null if not supported
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+        private final LatencyHistogram latency;
+
+        Result(double throughput, LatencyHistogram latency) {
+            this.throughput = throughput;
+            this.latency = latency;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.felix.inventory.Format;
+import org.apache.felix.inventory.InventoryPrinter;
+import org.apache.sling.models.caconfig.example.caconfig.SingleConfig;
+import org.apache.sling.models.caconfig.example.model.SingleConfigModel;
+import org.apache.sling.models.caconfig.impl.cache.ConfigurationCache;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionMetrics;
+import org.apache.sling.models.caconfig.impl.metrics.InjectionProfile;
+import org.apache.sling.testing.mock.caconfig.MockContextAwareConfig;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextBuilder;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.apache.sling.testing.mock.caconfig.ContextPlugins.CACONFIG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SlingContextExtension.class)
+class InjectorWebConsolePluginTest {
+
+    private final SlingContext context =
+            new SlingContextBuilder().plugin(CACONFIG).build();
+
+    // sling-mock registers the injector with default configuration as well
+    private static final Map<String, Object> INJECTOR_TARGET =
+            ImmutableMap.<String, Object>of("injector.target", "(cache.enabled=true)");
+
+    private ContextAwareConfigurationInjector injector;
+
+    @BeforeEach
+    void setUp() {
+        MockContextAwareConfig.registerAnnotationPackages(context, "org.apache.sling.models.caconfig.example.caconfig");
+        context.addModelsForPackage("org.apache.sling.models.caconfig.example.model");
+
+        context.create().resource("/content/region/site", "sling:configRef", "/conf/region/site");
+        context.currentResource(context.create().resource("/content/region/site/en"));
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value1");
+
+        injector = context.registerInjectActivateService(
+                ContextAwareConfigurationInjector.class,
+                "cache.enabled",
+                true,
+                "metrics.enabled",
+                true,
+                "profile.enabled",
+                true);
+        assertNotNull(context.request().adaptTo(SingleConfigModel.class));
+        assertNotNull(context.request().adaptTo(SingleConfigModel.class));
+    }
+
+    @Test
+    void testInventoryPrinter() {
+        InventoryPrinter printer =
+                context.registerInjectActivateService(InjectorInventoryPrinter.class, INJECTOR_TARGET);
+        StringWriter out = new StringWriter();
+        printer.print(new PrintWriter(out), Format.TEXT, false);
+
+        String report = out.toString();
+        assertTrue(report.contains("/content/region/site"), report);
+        assertTrue(report.contains("testSingleConfig"), report);
+        assertTrue(report.contains("50.0%"), report);
+        assertTrue(report.contains(SingleConfigModel.class.getName()), report);
+    }
+
+    @Test
+    void testInventoryPrinter_Json() {
+        InventoryPrinter printer =
+                context.registerInjectActivateService(InjectorInventoryPrinter.class, INJECTOR_TARGET);
+        StringWriter out = new StringWriter();
+        printer.print(new PrintWriter(out), Format.JSON, false);
+
+        String json = out.toString();
+        assertTrue(json.startsWith("{\"configurations\":[{\"contextPath\":\"/content/region/site\""), json);
+        assertTrue(json.contains("\"models\":[{\"modelClass\":\"" + SingleConfigModel.class.getName() + "\""), json);
+        assertTrue(json.contains("\"members\":[{\"member\":\"config\",\"injections\":2"), json);
+    }
+
+    @Test
+    void testFlush() {
+        InjectorWebConsolePlugin plugin =
+                context.registerInjectActivateService(InjectorWebConsolePlugin.class, INJECTOR_TARGET);
+        ConfigurationCache cache = injector.getConfigurationCache();
+        assertNotNull(cache);
+        assertEquals(1, cache.size());
+
+        plugin.execute(InjectorWebConsolePlugin.ACTION_FLUSH, "/content/othersite", null);
+        assertEquals(1, cache.size());
+        plugin.execute(InjectorWebConsolePlugin.ACTION_FLUSH, "/content/region", "otherConfig");
+        assertEquals(1, cache.size());
+        plugin.execute(InjectorWebConsolePlugin.ACTION_FLUSH, "/content/region", "testSingleConfig");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testWarmAndReset() {
+        InjectorWebConsolePlugin plugin =
+                context.registerInjectActivateService(InjectorWebConsolePlugin.class, INJECTOR_TARGET);
+        assertEquals(
+                "Scheduled refresh of 1 cached configurations.",
+                plugin.execute(InjectorWebConsolePlugin.ACTION_WARM, null, null));
+
+        plugin.execute(InjectorWebConsolePlugin.ACTION_RESET, null, null);
+        InjectionMetrics metrics = injector.getMetrics();
+        assertNotNull(metrics);
+        assertTrue(metrics.getConfigurationMetrics().isEmpty());
+        InjectionProfile profile = injector.getProfile();
+        assertNotNull(profile);
+        assertTrue(profile.getModelProfiles().isEmpty());
+    }
+}
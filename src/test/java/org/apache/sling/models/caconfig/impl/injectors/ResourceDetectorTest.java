@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.injectors;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.caconfig.management.multiplexer.ConfigurationInjectResourceDetectionStrategyMultiplexer;
+import org.apache.sling.caconfig.spi.ConfigurationInjectResourceDetectionStrategy;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(SlingContextExtension.class)
+class ResourceDetectorTest {
+
+    private final SlingContext context = new SlingContext();
+
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final ResourceDetector underTest = new ResourceDetector(clock::get);
+    private final ConfigurationInjectResourceDetectionStrategyMultiplexer multiplexer = request -> null;
+
+    private Resource target;
+
+    @BeforeEach
+    void setUp() {
+        target = context.create().resource("/content/site/en");
+        context.currentResource(context.create().resource("/content/other/page", "sling:resourceType", "app/page"));
+    }
+
+    @Test
+    void testRanking() {
+        AtomicInteger calls = new AtomicInteger();
+        ConfigurationInjectResourceDetectionStrategy lower = request -> {
+            calls.incrementAndGet();
+            return null;
+        };
+        underTest.bind(lower, ImmutableMap.<String, Object>of("service.ranking", 10, "service.id", 1L));
+        underTest.bind(request -> target, ImmutableMap.<String, Object>of("service.ranking", 100, "service.id", 2L));
+
+        assertEquals(
+                target.getPath(),
+                underTest.detectResource(context.request(), multiplexer).getPath());
+        assertEquals(0, calls.get());
+        assertEquals(1, underTest.getStrategies().get(0).getTiming().getCount());
+
+        underTest.unbind(request -> null, ImmutableMap.<String, Object>of("service.ranking", 100, "service.id", 2L));
+        assertNull(underTest.detectResource(context.request(), multiplexer));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testMultiplexerFallback() {
+        ConfigurationInjectResourceDetectionStrategyMultiplexer targetMultiplexer = request -> target;
+        assertEquals(target, underTest.detectResource(context.request(), targetMultiplexer));
+    }
+
+    @Test
+    void testCache() {
+        AtomicInteger calls = new AtomicInteger();
+        ConfigurationInjectResourceDetectionStrategy strategy = request -> {
+            calls.incrementAndGet();
+            return target;
+        };
+        underTest.bind(
+                strategy,
+                ImmutableMap.<String, Object>of(ResourceDetector.PROPERTY_CACHE_TTL_SECONDS, 10, "service.id", 1L));
+
+        assertEquals(
+                target.getPath(),
+                underTest.detectResource(context.request(), multiplexer).getPath());
+        assertEquals(
+                target.getPath(),
+                underTest.detectResource(context.request(), multiplexer).getPath());
+        assertEquals(1, calls.get());
+        assertEquals(1, underTest.getStrategies().get(0).getCacheHits());
+
+        // other resource type is cached separately
+        context.currentResource(context.create().resource("/content/other/page2", "sling:resourceType", "app/other"));
+        underTest.detectResource(context.request(), multiplexer);
+        assertEquals(2, calls.get());
+
+        // expired
+        clock.addAndGet(10000);
+        underTest.detectResource(context.request(), multiplexer);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testCache_LeastRecentlyUsed() {
+        AtomicInteger calls = new AtomicInteger();
+        ConfigurationInjectResourceDetectionStrategy strategy = request -> {
+            calls.incrementAndGet();
+            return target;
+        };
+        underTest.bind(
+                strategy,
+                ImmutableMap.<String, Object>of(ResourceDetector.PROPERTY_CACHE_TTL_SECONDS, 10, "service.id", 1L));
+
+        Resource page = context.request().getResource();
+        underTest.detectResource(context.request(), multiplexer);
+        for (int i = 1; i <= ResourceDetector.MAX_CACHE_ENTRIES; i++) {
+            context.currentResource(new SyntheticResource(context.resourceResolver(), "/content/page" + i, "app/page"));
+            underTest.detectResource(context.request(), multiplexer);
+            if (i % 1000 == 0) {
+                // keep the first page recently used
+                context.currentResource(page);
+                underTest.detectResource(context.request(), multiplexer);
+            }
+        }
+        assertEquals(ResourceDetector.MAX_CACHE_ENTRIES + 1, calls.get());
+
+        // the recently used page is still cached, the eldest other page was evicted
+        context.currentResource(page);
+        underTest.detectResource(context.request(), multiplexer);
+        assertEquals(ResourceDetector.MAX_CACHE_ENTRIES + 1, calls.get());
+        context.currentResource(new SyntheticResource(context.resourceResolver(), "/content/page1", "app/page"));
+        underTest.detectResource(context.request(), multiplexer);
+        assertEquals(ResourceDetector.MAX_CACHE_ENTRIES + 2, calls.get());
+    }
+
+    @Test
+    void testCache_NoResult() {
+        AtomicInteger calls = new AtomicInteger();
+        ConfigurationInjectResourceDetectionStrategy strategy = request -> {
+            calls.incrementAndGet();
+            return null;
+        };
+        underTest.bind(
+                strategy,
+                ImmutableMap.<String, Object>of(ResourceDetector.PROPERTY_CACHE_TTL_SECONDS, "10", "service.id", 1L));
+
+        assertNull(underTest.detectResource(context.request(), multiplexer));
+        assertNull(underTest.detectResource(context.request(), multiplexer));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testNotCacheable() {
+        AtomicInteger calls = new AtomicInteger();
+        ConfigurationInjectResourceDetectionStrategy strategy = request -> {
+            calls.incrementAndGet();
+            return target;
+        };
+        underTest.bind(strategy, ImmutableMap.<String, Object>of("service.id", 1L));
+
+        underTest.detectResource(context.request(), multiplexer);
+        underTest.detectResource(context.request(), multiplexer);
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.apache.sling.caconfig.annotation.Configuration;
+import org.apache.sling.models.caconfig.example.caconfig.ListConfig;
+import org.apache.sling.models.caconfig.example.caconfig.SingleConfig;
+import org.apache.sling.models.caconfig.example.model.ListConfigModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigModel;
+import org.apache.sling.models.caconfig.example.model.SingleConfigValueMapModel;
+import org.apache.sling.models.caconfig.impl.cache.ValueMapConfigurationProxy;
+import org.apache.sling.models.caconfig.impl.injectors.ContextAwareConfigurationInjector;
+import org.apache.sling.testing.mock.caconfig.MockContextAwareConfig;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextBuilder;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.apache.sling.testing.mock.caconfig.ContextPlugins.CACONFIG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ExtendWith(SlingContextExtension.class)
+class ConfigurationModuleProviderTest {
+
+    @Configuration
+    @interface NameMappingConfig {
+
+        String site_url();
+
+        String price__currency();
+    }
+
+    private final SlingContext context =
+            new SlingContextBuilder().plugin(CACONFIG).build();
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        MockContextAwareConfig.registerAnnotationPackages(context, "org.apache.sling.models.caconfig.example.caconfig");
+        context.addModelsForPackage("org.apache.sling.models.caconfig.example.model");
+
+        context.create().resource("/content/region/site", "sling:configRef", "/conf/region/site");
+        context.currentResource(context.create().resource("/content/region/site/en"));
+        MockContextAwareConfig.writeConfiguration(
+                context, "/content/region/site", SingleConfig.class, "stringParam", "value1", "boolParam", true);
+        MockContextAwareConfig.writeConfigurationCollection(
+                context,
+                "/content/region/site",
+                ListConfig.class,
+                ImmutableList.of(
+                        ImmutableMap.<String, Object>of("stringParam", "item1"),
+                        ImmutableMap.<String, Object>of("stringParam", "item2")));
+
+        ConfigurationModuleProvider moduleProvider =
+                context.registerInjectActivateService(ConfigurationModuleProvider.class);
+        objectMapper = new ObjectMapper().registerModule(moduleProvider.getModule());
+    }
+
+    @Test
+    void testSingleConfig() throws Exception {
+        SingleConfigModel model = context.currentResource().adaptTo(SingleConfigModel.class);
+        assertNotNull(model);
+        assertEquals(
+                "{\"boolParam\":true,\"intParam\":5,\"stringParam\":\"value1\"}",
+                objectMapper.writeValueAsString(model.getConfig()));
+    }
+
+    @Test
+    void testSingleConfig_Cached() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        SingleConfigModel model = context.currentResource().adaptTo(SingleConfigModel.class);
+        assertNotNull(model);
+        assertEquals(
+                "{\"config\":{\"boolParam\":true,\"intParam\":5,\"stringParam\":\"value1\"}}",
+                objectMapper.writeValueAsString(model));
+    }
+
+    @Test
+    void testListConfig() throws Exception {
+        ListConfigModel model = context.currentResource().adaptTo(ListConfigModel.class);
+        assertNotNull(model);
+        String items = "[{\"boolParam\":false,\"intParam\":5,\"stringParam\":\"item1\"},"
+                + "{\"boolParam\":false,\"intParam\":5,\"stringParam\":\"item2\"}]";
+        assertEquals(
+                "{\"configList\":" + items + ",\"configCollection\":" + items + ",\"configArray\":" + items + "}",
+                objectMapper.writeValueAsString(model));
+    }
+
+    @Test
+    void testPropertyNameMapping() throws Exception {
+        NameMappingConfig config = ValueMapConfigurationProxy.newInstance(
+                NameMappingConfig.class,
+                new ValueMapDecorator(ImmutableMap.<String, Object>of("site.url", "/site", "price_currency", "EUR")));
+        assertEquals("{\"price_currency\":\"EUR\",\"site.url\":\"/site\"}", objectMapper.writeValueAsString(config));
+    }
+
+    @Test
+    void testValueMap() throws Exception {
+        SingleConfigValueMapModel model = context.currentResource().adaptTo(SingleConfigValueMapModel.class);
+        assertNotNull(model);
+        assertEquals(
+                objectMapper.readTree("{\"boolParam\":true,\"intParam\":5,\"stringParam\":\"value1\"}"),
+                objectMapper.readTree(objectMapper.writeValueAsString(model.getConfig())));
+    }
+
+    @Test
+    void testValueMap_Cached() throws Exception {
+        context.registerInjectActivateService(ContextAwareConfigurationInjector.class, "cache.enabled", true);
+        SingleConfigValueMapModel model = context.currentResource().adaptTo(SingleConfigValueMapModel.class);
+        assertNotNull(model);
+        assertEquals(
+                objectMapper.readTree("{\"boolParam\":true,\"intParam\":5,\"stringParam\":\"value1\"}"),
+                objectMapper.readTree(objectMapper.writeValueAsString(model.getConfig())));
+    }
+}
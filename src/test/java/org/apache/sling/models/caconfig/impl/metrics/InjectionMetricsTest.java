@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.models.caconfig.impl.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InjectionMetricsTest {
+
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        for (int i = 0; i < 98; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), histogram.getMaxNanos());
+        // percentiles are reported with bucket precision (factor 2)
+        long p50 = histogram.getPercentileNanos(0.5);
+        assertTrue(p50 >= TimeUnit.MICROSECONDS.toNanos(10) && p50 < TimeUnit.MICROSECONDS.toNanos(20), "p50");
+        long p99 = histogram.getPercentileNanos(0.99);
+        assertTrue(p99 >= TimeUnit.MILLISECONDS.toNanos(5) && p99 <= TimeUnit.MILLISECONDS.toNanos(10), "p99");
+    }
+
+    @Test
+    void testConfigurationMetrics() {
+        InjectionMetrics metrics = new InjectionMetrics(10);
+        metrics.recordCached("/content/site1", "config1", false, 1000);
+        metrics.recordCached("/content/site1", "config1", true, 10);
+        metrics.recordCached("/content/site1", "config1", true, 10);
+        metrics.recordCached(null, "config1", false, 1000);
+        metrics.recordUncached("config2", 1000);
+        metrics.recordEviction("/content/site1", "config1");
+
+        List<ConfigurationMetrics> result = metrics.getConfigurationMetrics();
+        assertEquals(3, result.size());
+
+        ConfigurationMetrics site1 = result.get(0);
+        assertEquals("/content/site1", site1.getContextPath());
+        assertEquals("config1", site1.getConfigName());
+        assertEquals(3, site1.getInjections());
+        assertEquals(2d / 3, site1.getCacheHitRatio(), 0.001);
+        assertEquals(1, site1.getEvictions());
+        assertEquals(1, site1.getResolution().getCount());
+
+        ConfigurationMetrics uncached = result.stream()
+                .filter(item -> item.getContextPath().equals(InjectionMetrics.UNCACHED_CONTEXT))
+                .findFirst()
+                .get();
+        assertEquals(-1, uncached.getCacheHitRatio(), 0.001);
+
+        metrics.reset();
+        assertTrue(metrics.getConfigurationMetrics().isEmpty());
+    }
+
+    @Test
+    void testMaxKeys() {
+        InjectionMetrics metrics = new InjectionMetrics(2);
+        metrics.recordUncached("config1", 10);
+        metrics.recordUncached("config2", 10);
+        metrics.recordUncached("config3", 10);
+        metrics.recordUncached("config4", 10);
+
+        List<ConfigurationMetrics> result = metrics.getConfigurationMetrics();
+        assertEquals(3, result.size());
+        assertEquals(InjectionMetrics.OVERFLOW, result.get(0).getConfigName());
+        assertEquals(2, result.get(0).getInjections());
+    }
+
+    @Test
+    void testInjectionProfile() {
+        InjectionProfile profile = new InjectionProfile(3);
+        profile.record("Model1", "config", InjectionProfile.start());
+        profile.record("Model1", "config", InjectionProfile.start());
+        InjectionProfile.Sample start = InjectionProfile.start();
+        byte[] allocated = new byte[100000];
+        profile.record("Model2", "configList", start);
+        profile.record("Model2", "other", InjectionProfile.start());
+        profile.record("Model3", "config", InjectionProfile.start());
+
+        List<ModelProfile> result = profile.getModelProfiles();
+        assertEquals(3, result.size());
+        ModelProfile model1 = result.stream()
+                .filter(item -> item.getModelClass().equals("Model1"))
+                .findFirst()
+                .get();
+        assertEquals(2, model1.getInjections());
+        assertEquals(1, model1.getMembers().size());
+
+        // more members than allowed are aggregated
+        ModelProfile overflow = result.stream()
+                .filter(item -> item.getModelClass().equals(InjectionMetrics.OVERFLOW))
+                .findFirst()
+                .get();
+        assertEquals(1, overflow.getInjections());
+
+        if (InjectionProfile.isAllocationMeasured()) {
+            ModelProfile model2 = result.stream()
+                    .filter(item -> item.getModelClass().equals("Model2"))
+                    .findFirst()
+                    .get();
+            assertTrue(model2.getAllocatedBytes() >= allocated.length);
+        }
+
+        profile.reset();
+        assertTrue(profile.getModelProfiles().isEmpty());
+    }
+}